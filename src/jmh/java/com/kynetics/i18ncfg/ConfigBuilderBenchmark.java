@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigBuilderBenchmark {
+
+    @Param({"3"})
+    public int depth;
+
+    @Param({"20"})
+    public int filesPerDir;
+
+    @Param({"50"})
+    public int keysPerFile;
+
+    @Param({"conf,json,properties"})
+    public String formats;
+
+    @Param({"2"})
+    public int locales;
+
+    @Param({"false"})
+    public boolean parseCache;
+
+    private SyntheticTree tree;
+
+    private Locale locale;
+
+    private Config rootConfig;
+
+    private Map<String, ConfigBuilder.FileSequences> fileSequencesMap;
+
+    private Config unresolvedConfig;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tree = SyntheticTree.generate(depth, filesPerDir, keysPerFile, formats, locales);
+        locale = tree.locales.isEmpty() ? Locale.getDefault() : tree.locales.get(0);
+        final ConfigBuilder builder = newBuilder();
+        rootConfig = builder.buildRootConfig();
+        fileSequencesMap = builder.buildFileSequencesMap();
+        unresolvedConfig = builder.buildConfig(rootConfig, fileSequencesMap);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        tree.delete();
+    }
+
+    @Benchmark
+    public Config buildRootConfig() {
+        return newBuilder().buildRootConfig();
+    }
+
+    @Benchmark
+    public Map<String, ConfigBuilder.FileSequences> buildFileSequencesMap() {
+        final ConfigBuilder builder = newBuilder();
+        builder.buildRootConfig();
+        return builder.buildFileSequencesMap();
+    }
+
+    @Benchmark
+    public Config buildConfig() {
+        return newBuilder().buildConfig(rootConfig, fileSequencesMap);
+    }
+
+    @Benchmark
+    public Config resolve() {
+        return unresolvedConfig.resolve();
+    }
+
+    @Benchmark
+    public Config build() {
+        return newBuilder().build();
+    }
+
+    private ConfigBuilder newBuilder() {
+        return ConfigBuilder.create().withConfigFile(tree.configFile).withLocale(locale)
+                .withParseCache(parseCache ? ParseCache.shared() : new ParseCache(0));
+    }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigValue;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageTableBenchmark {
+
+    @Param({"2"})
+    public int depth;
+
+    @Param({"20"})
+    public int filesPerDir;
+
+    @Param({"50"})
+    public int keysPerFile;
+
+    private SyntheticTree tree;
+
+    private Config config;
+
+    private MessageTable table;
+
+    private String[] paths;
+
+    private int[] handles;
+
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tree = SyntheticTree.generate(depth, filesPerDir, keysPerFile, "conf,json,properties", 1);
+        final Locale locale = tree.locales.isEmpty() ? Locale.getDefault() : tree.locales.get(0);
+        config = ConfigBuilder.create().withConfigFile(tree.configFile).withLocale(locale).build();
+        table = MessageTable.compile(config);
+        final List<String> keys = new ArrayList<>();
+        for(Map.Entry<String, ConfigValue> entry : config.entrySet()) {
+            if(table.hasPath(entry.getKey())) keys.add(entry.getKey());
+        }
+        paths = keys.toArray(new String[keys.size()]);
+        handles = new int[paths.length];
+        for(int i = 0; i < paths.length; i++) {
+            handles[i] = table.handle(paths[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        tree.delete();
+    }
+
+    @Benchmark
+    public String configGetString() {
+        return config.getString(paths[nextIndex()]);
+    }
+
+    @Benchmark
+    public String tableGet() {
+        return table.get(paths[nextIndex()]);
+    }
+
+    @Benchmark
+    public String tableGetByHandle() {
+        return table.get(handles[nextIndex()]);
+    }
+
+    private int nextIndex() {
+        final int i = next;
+        next = i + 1 == paths.length ? 0 : i + 1;
+        return i;
+    }
+
+}
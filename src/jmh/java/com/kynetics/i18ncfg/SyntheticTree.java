@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+class SyntheticTree {
+
+    private static final String[][] LOCALES = {
+            {"it", "IT"}, {"fr", "FR"}, {"de", "DE"}, {"es", "ES"}, {"pt", "BR"}, {"ja", "JP"},
+            {"zh", "CN"}, {"ru", "RU"}, {"nl", "NL"}, {"sv", "SE"}, {"pl", "PL"}, {"ko", "KR"},
+            {"tr", "TR"}, {"cs", "CZ"}, {"da", "DK"}, {"fi", "FI"}, {"el", "GR"}, {"hu", "HU"},
+            {"nb", "NO"}, {"ro", "RO"}
+    };
+
+    static SyntheticTree generate(int depth, int filesPerDir, int keysPerFile, String formats, int localeCount) throws IOException {
+        if(localeCount > LOCALES.length) throw new IllegalArgumentException("At most "+LOCALES.length+" locales are supported");
+        final File rootDir = Files.createTempDirectory("i18ncfg-bench").toFile();
+        final String[] filetypes = formats.split(",");
+        final List<Locale> locales = new ArrayList<>(localeCount);
+        for(int l = 0; l < localeCount; l++) {
+            locales.add(new Locale.Builder().setLanguage(LOCALES[l][0]).setRegion(LOCALES[l][1]).build());
+        }
+        File dir = rootDir;
+        for(int d = 0; d < depth; d++) {
+            if(d > 0) {
+                dir = new File(dir, "profile_"+d);
+                if(!dir.mkdir()) throw new IOException("Cannot create "+dir);
+            }
+            for(int i = 0; i < filesPerDir; i++) {
+                final String filetype = filetypes[i % filetypes.length];
+                final String bundle = "bundle"+i;
+                writeBundle(new File(dir, bundle+"."+filetype), filetype, keysPerFile, "level "+d);
+                for(Locale locale : locales) {
+                    writeBundle(new File(dir, bundle+"_"+locale.getLanguage()+"."+filetype),
+                            filetype, keysPerFile / 2, locale.getLanguage()+" level "+d);
+                    writeBundle(new File(dir, bundle+"_"+locale.getLanguage()+"_"+locale.getCountry()+"."+filetype),
+                            filetype, keysPerFile / 4, locale+" level "+d);
+                }
+            }
+        }
+        final File configFile = new File(rootDir, "application.config");
+        try(Writer w = new FileWriter(configFile)) {
+            w.write(ConfigBuilder.ROOT_DIR_CONFIG_KEY+": .\n");
+            w.write(ConfigBuilder.PROFILE_PATH_CONFIG_KEY+": \""+rootDir.toURI().relativize(dir.toURI()).getPath()+"\"\n");
+        }
+        return new SyntheticTree(rootDir, dir, configFile, locales);
+    }
+
+    private static void writeBundle(File file, String filetype, int keys, String value) throws IOException {
+        try(Writer w = new FileWriter(file)) {
+            if("json".equals(filetype)) {
+                final int groups = Math.min(keys, 10);
+                w.write("{\n");
+                for(int g = 0; g < groups; g++) {
+                    w.write("  \"group"+g+"\": {\n");
+                    for(int k = g; k < keys; k += 10) {
+                        w.write("    \"key"+k+"\": \"value "+k+" "+value+"\""+(k + 10 < keys ? ",\n" : "\n"));
+                    }
+                    w.write(g < groups - 1 ? "  },\n" : "  }\n");
+                }
+                w.write("}\n");
+            } else if("properties".equals(filetype)) {
+                for(int k = 0; k < keys; k++) {
+                    w.write("group"+(k % 10)+".key"+k+" = value "+k+" "+value+"\n");
+                }
+            } else {
+                for(int k = 0; k < keys; k++) {
+                    w.write("group"+(k % 10)+".key"+k+": \"value "+k+" "+value+"\"\n");
+                }
+                w.write("reference: ${?bundle0.group0.key0}\n");
+            }
+        }
+    }
+
+    private SyntheticTree(File rootDir, File profileDir, File configFile, List<Locale> locales) {
+        this.rootDir = rootDir;
+        this.profileDir = profileDir;
+        this.configFile = configFile;
+        this.locales = locales;
+    }
+
+    void delete() throws IOException {
+        Files.walkFileTree(rootDir.toPath(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    final File rootDir;
+
+    final File profileDir;
+
+    final File configFile;
+
+    final List<Locale> locales;
+
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import java.io.File;
+
+/**
+ * Receives timings and counters from ConfigBuilder. Callbacks may be invoked
+ * concurrently when the builder runs with an Executor or a parallelism above 1.
+ */
+public interface BuildListener {
+
+    void directoryScanned(File dir, int acceptedFiles, int rejectedFiles);
+
+    void fileParsed(File file, long bytes, long nanos);
+
+    void keyMerged(String key, int files, long nanos);
+
+    void configResolved(long nanos);
+
+    BuildListener NONE = new BuildListener() {
+        @Override
+        public void directoryScanned(File dir, int acceptedFiles, int rejectedFiles) {
+        }
+
+        @Override
+        public void fileParsed(File file, long bytes, long nanos) {
+        }
+
+        @Override
+        public void keyMerged(String key, int files, long nanos) {
+        }
+
+        @Override
+        public void configResolved(long nanos) {
+        }
+    };
+
+}
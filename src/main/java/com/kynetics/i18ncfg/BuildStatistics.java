@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BuildStatistics implements BuildListener {
+
+    @Override
+    public void directoryScanned(File dir, int acceptedFiles, int rejectedFiles) {
+        directories.incrementAndGet();
+        this.acceptedFiles.addAndGet(acceptedFiles);
+        this.rejectedFiles.addAndGet(rejectedFiles);
+    }
+
+    @Override
+    public void fileParsed(File file, long bytes, long nanos) {
+        parsedFiles.incrementAndGet();
+        parsedBytes.addAndGet(bytes);
+        parseNanos.addAndGet(nanos);
+    }
+
+    @Override
+    public void keyMerged(String key, int files, long nanos) {
+        mergedKeys.incrementAndGet();
+        mergeNanos.addAndGet(nanos);
+    }
+
+    @Override
+    public void configResolved(long nanos) {
+        resolves.incrementAndGet();
+        resolveNanos.addAndGet(nanos);
+    }
+
+    public long directories() {
+        return directories.get();
+    }
+
+    public long acceptedFiles() {
+        return acceptedFiles.get();
+    }
+
+    public long rejectedFiles() {
+        return rejectedFiles.get();
+    }
+
+    public long parsedFiles() {
+        return parsedFiles.get();
+    }
+
+    public long parsedBytes() {
+        return parsedBytes.get();
+    }
+
+    public long parseTime(TimeUnit unit) {
+        return unit.convert(parseNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    public long mergedKeys() {
+        return mergedKeys.get();
+    }
+
+    public long mergeTime(TimeUnit unit) {
+        return unit.convert(mergeNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    public long resolves() {
+        return resolves.get();
+    }
+
+    public long resolveTime(TimeUnit unit) {
+        return unit.convert(resolveNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BuildStatistics [directories: %d, accepted files: %d, rejected files: %d, " +
+                        "parsed files: %d (%d bytes, %d ms), merged keys: %d (%d ms), resolves: %d (%d ms)]",
+                directories(), acceptedFiles(), rejectedFiles(),
+                parsedFiles(), parsedBytes(), parseTime(TimeUnit.MILLISECONDS),
+                mergedKeys(), mergeTime(TimeUnit.MILLISECONDS),
+                resolves(), resolveTime(TimeUnit.MILLISECONDS));
+    }
+
+    private final AtomicLong directories = new AtomicLong();
+
+    private final AtomicLong acceptedFiles = new AtomicLong();
+
+    private final AtomicLong rejectedFiles = new AtomicLong();
+
+    private final AtomicLong parsedFiles = new AtomicLong();
+
+    private final AtomicLong parsedBytes = new AtomicLong();
+
+    private final AtomicLong parseNanos = new AtomicLong();
+
+    private final AtomicLong mergedKeys = new AtomicLong();
+
+    private final AtomicLong mergeNanos = new AtomicLong();
+
+    private final AtomicLong resolves = new AtomicLong();
+
+    private final AtomicLong resolveNanos = new AtomicLong();
+
+}
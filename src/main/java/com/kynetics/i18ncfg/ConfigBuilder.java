@@ -24,14 +24,27 @@ package com.kynetics.i18ncfg;
 
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
-import com.typesafe.config.ConfigResolveOptions;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigParseOptions;
+import com.typesafe.config.ConfigSyntax;
 
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.*;
 
 public class ConfigBuilder {
 
@@ -39,7 +52,35 @@ public class ConfigBuilder {
 
     public static final String PROFILE_PATH_CONFIG_KEY = "profilePath";
 
-    private ConfigBuilder(){}
+    private ConfigBuilder(){
+        this.copy = false;
+    }
+
+    /**
+     * Builds run on a copy, so a builder can be shared and reconfigured while builds are running
+     * and buildRootConfig can fill in the directories named by the config file.
+     */
+    private ConfigBuilder(ConfigBuilder other) {
+        this.copy = true;
+        this.rootDir = other.rootDir;
+        this.profileDir = other.profileDir;
+        this.configFile = other.configFile;
+        this.locale = other.locale;
+        this.fileFilter = other.fileFilter;
+        this.parseCache = other.parseCache;
+        this.executor = other.executor;
+        this.parallelism = other.parallelism;
+        this.snapshotFile = other.snapshotFile;
+        this.buildListener = other.buildListener;
+        this.configRegistry = other.configRegistry;
+        this.source = other.source;
+        this.profilePath = other.profilePath;
+        this.deduplicator = other.deduplicator;
+    }
+
+    private ConfigBuilder copy() {
+        return new ConfigBuilder(this);
+    }
 
     public static ConfigBuilder create() {
         return new ConfigBuilder();
@@ -66,6 +107,30 @@ public class ConfigBuilder {
         return this;
     }
 
+    public ConfigBuilder withSource(ConfigSource source) {
+        requireArgument(source != null, "Source must not be null");
+        this.source = source;
+        checkState();
+        return this;
+    }
+
+    public ConfigBuilder withProfilePath(String path) {
+        requireArgument(path != null, "ProfilePath must not be null");
+        this.profilePath = normalizePath(path);
+        return this;
+    }
+
+    static String normalizePath(String path) {
+        final StringBuilder normalized = new StringBuilder(path.length());
+        for(String element : path.split("/")) {
+            if(element.isEmpty()) continue;
+            requireArgument(!element.equals(".") && !element.equals(".."), "ProfilePath must not contain . or ..");
+            if(normalized.length() > 0) normalized.append('/');
+            normalized.append(element);
+        }
+        return normalized.toString();
+    }
+
     public ConfigBuilder withLocale(Locale locale) {
         this.locale = locale;
         return this;
@@ -73,12 +138,331 @@ public class ConfigBuilder {
 
     public ConfigBuilder withFileFilter(final FileFilter fileFilter) {
         requireArgument(fileFilter != null, "FileFilter must not be null");
-        this.fileFilter = new AndFileFilter(fileFilter, mandatoryFileFilter);
+        this.fileFilter = fileFilter;
+        return this;
+    }
+
+    public ConfigBuilder withParseCache(ParseCache parseCache) {
+        requireArgument(parseCache != null, "ParseCache must not be null");
+        this.parseCache = parseCache;
+        return this;
+    }
+
+    public ConfigBuilder withDeduplicator(ContentDeduplicator deduplicator) {
+        requireArgument(deduplicator != null, "Deduplicator must not be null");
+        this.deduplicator = deduplicator;
+        return this;
+    }
+
+    public ConfigBuilder withExecutor(Executor executor) {
+        requireArgument(executor != null, "Executor must not be null");
+        this.executor = executor;
+        return this;
+    }
+
+    public ConfigBuilder withParallelism(int parallelism) {
+        requireArgument(parallelism > 0, "Parallelism must be positive");
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public ConfigBuilder withSnapshotFile(File file) {
+        requireArgument(file != null && !file.isDirectory(), "SnapshotFile must be a file");
+        this.snapshotFile = file;
+        return this;
+    }
+
+    public ConfigBuilder withBuildListener(BuildListener buildListener) {
+        requireArgument(buildListener != null, "BuildListener must not be null");
+        this.buildListener = buildListener;
+        return this;
+    }
+
+    /**
+     * Builds share configs through the registry. Each build scans the files and rebuilds when one
+     * changed in size, modification time or version. A file filter is part of the registry key, so
+     * filters that accept the same files must be equal and have the same hashCode to share a config.
+     */
+    public ConfigBuilder withConfigRegistry(ConfigRegistry configRegistry) {
+        requireArgument(configRegistry != null, "ConfigRegistry must not be null");
+        this.configRegistry = configRegistry;
         return this;
     }
 
     public Config build() {
-        return buildConfig(buildRootConfig(), buildFileSequencesMap());
+        if(!this.copy) return copy().build();
+        if(this.configRegistry == null) {
+            return buildUnshared();
+        } else {
+            final ConfigRegistry.Key key = new ConfigRegistry.Key(this.rootDir, this.profileDir, this.configFile,
+                    this.source, this.profilePath, this.locale, this.fileFilter);
+            buildRootConfig();
+            return this.configRegistry.get(key, manifest(scanFiles()), new Callable<Config>() {
+                @Override
+                public Config call() {
+                    return buildUnshared();
+                }
+            });
+        }
+    }
+
+    public Future<Config> buildAsync(Executor executor) {
+        requireArgument(executor != null, "Executor must not be null");
+        final FutureTask<Config> task = new FutureTask<>(buildTask());
+        executor.execute(task);
+        return task;
+    }
+
+    Callable<Config> buildTask() {
+        final ConfigBuilder builder = copy();
+        return new Callable<Config>() {
+            @Override
+            public Config call() {
+                return builder.build();
+            }
+        };
+    }
+
+    private Config buildUnshared() {
+        if(this.snapshotFile == null) {
+            return resolve(buildConfig(buildRootConfig(), buildFileSequencesMap()));
+        } else {
+            return buildWithSnapshot();
+        }
+    }
+
+    public Map<Locale, Config> buildAll(Collection<Locale> locales) {
+        requireArgument(locales != null, "Locales must not be null");
+        if(!this.copy) return copy().buildAll(locales);
+        final Config rootConfig = buildRootConfig();
+        final List<ScannedFile> scannedFiles = scanFiles();
+        final LocaleIndex localeIndex = LocaleIndex.of(scannedFiles);
+        final Set<Locale> effectiveLocales = new LinkedHashSet<>();
+        for(Locale l : locales) {
+            effectiveLocales.add(localeIndex.effectiveLocale(l));
+        }
+        final List<Locale> targetLocales = new ArrayList<>(effectiveLocales);
+        final List<Map<String, FileSequences>> fileSequencesMaps = new ArrayList<>(targetLocales.size());
+        final Map<String, FileSequences> defaultFileSequencesMap = new HashMap<>();
+        final List<FileSequences> allFileSequences = new ArrayList<>();
+        for(Locale l : targetLocales) {
+            final Map<String, FileSequences> fileSequencesMap = buildFileSequencesMap(scannedFiles, l);
+            fileSequencesMaps.add(fileSequencesMap);
+            allFileSequences.addAll(fileSequencesMap.values());
+            for(Map.Entry<String, FileSequences> entry : fileSequencesMap.entrySet()) {
+                if(!defaultFileSequencesMap.containsKey(entry.getKey())) {
+                    defaultFileSequencesMap.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        final ExecutorService ownExecutor = this.executor == null && this.parallelism > 1 ? newExecutor(this.parallelism) : null;
+        try {
+            final Executor exec = ownExecutor != null ? ownExecutor : this.executor != null ? this.executor : directExecutor;
+            final Map<ScannedFile, Config> parsed = parseAll(exec, allFileSequences);
+            final List<String> keys = new ArrayList<>(defaultFileSequencesMap.keySet());
+            final List<Callable<Config>> defaultMerges = new ArrayList<>(keys.size());
+            for(final String key : keys) {
+                defaultMerges.add(new Callable<Config>() {
+                    @Override
+                    public Config call() {
+                        final long start = System.nanoTime();
+                        final FileSequences fileSequences = defaultFileSequencesMap.get(key);
+                        final List<Config> layers = new ArrayList<>(fileSequences.defaultSequenceSize());
+                        addDefaultLayers(layers, fileSequences, parsed);
+                        final Config merged = merge(layers);
+                        buildListener.keyMerged(key, fileSequences.defaultSequenceSize(), System.nanoTime() - start);
+                        return merged;
+                    }
+                });
+            }
+            final List<Config> defaultConfigs = invokeAll(exec, defaultMerges);
+            final Map<String, Config> defaults = new HashMap<>();
+            for(int i = 0; i < keys.size(); i++) {
+                defaults.put(keys.get(i), defaultConfigs.get(i));
+            }
+            final List<Callable<Config>> localeBuilds = new ArrayList<>(targetLocales.size());
+            for(final Map<String, FileSequences> fileSequencesMap : fileSequencesMaps) {
+                localeBuilds.add(new Callable<Config>() {
+                    @Override
+                    public Config call() {
+                        Config cfg = rootConfig;
+                        for(String key : fileSequencesMap.keySet()) {
+                            final long start = System.nanoTime();
+                            final FileSequences fileSequences = fileSequencesMap.get(key);
+                            final List<Config> layers = new ArrayList<>(fileSequences.localeSequenceSize() + 1);
+                            addLocaleLayers(layers, fileSequences, parsed);
+                            layers.add(defaults.get(key));
+                            cfg = cfg.withValue(key, merge(layers).root());
+                            buildListener.keyMerged(key, fileSequences.localeSequenceSize(), System.nanoTime() - start);
+                        }
+                        return resolve(cfg);
+                    }
+                });
+            }
+            final List<Config> configs = invokeAll(exec, localeBuilds);
+            final Map<Locale, Config> result = new LinkedHashMap<>();
+            for(Locale l : locales) {
+                result.put(l, configs.get(targetLocales.indexOf(localeIndex.effectiveLocale(l))));
+            }
+            return result;
+        } finally {
+            if(ownExecutor != null) ownExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Builds the default locale config once, resolving it on first use, and for each locale a view
+     * over it storing only what its locale files set. Keys whose locale files replace or reset a
+     * default object are stored merged in full. Trees with substitutions are built in full for each
+     * locale, since a default value may refer to an overridden one.
+     */
+    public Map<Locale, ConfigView> buildLayered(Collection<Locale> locales) {
+        requireArgument(locales != null, "Locales must not be null");
+        if(!this.copy) return copy().buildLayered(locales);
+        final Config rootConfig = buildRootConfig();
+        final List<ScannedFile> scannedFiles = scanFiles();
+        final LocaleIndex localeIndex = LocaleIndex.of(scannedFiles);
+        final Config unresolvedBase = buildConfig(rootConfig, buildFileSequencesMap(scannedFiles, null));
+        final LayeredConfig.Base base = new LayeredConfig.Base(this, unresolvedBase);
+        final ConfigView baseView = new LayeredConfig(ConfigFactory.empty(), Collections.<String>emptySet(),
+                Collections.<String>emptySet(), base);
+        final Map<Locale, ConfigView> layered = new HashMap<>();
+        final Map<Locale, ConfigView> result = new LinkedHashMap<>();
+        for(Locale l : locales) {
+            final Locale effectiveLocale = localeIndex.effectiveLocale(l);
+            if(effectiveLocale == null) {
+                result.put(l, baseView);
+                continue;
+            }
+            ConfigView config = layered.get(effectiveLocale);
+            if(config == null) {
+                final Map<String, FileSequences> fileSequencesMap = buildFileSequencesMap(scannedFiles, effectiveLocale);
+                config = unresolvedBase.isResolved() ? buildLayer(fileSequencesMap, unresolvedBase, base) : null;
+                if(config == null) config = ConfigView.of(resolve(buildConfig(rootConfig, fileSequencesMap)));
+                layered.put(effectiveLocale, config);
+            }
+            result.put(l, config);
+        }
+        return result;
+    }
+
+    /**
+     * @return the locale config over base, or null when a locale value needs resolving
+     */
+    private LayeredConfig buildLayer(Map<String, FileSequences> fileSequencesMap, Config unresolvedBase,
+                                     LayeredConfig.Base base) {
+        Config overlay = ConfigFactory.empty();
+        final Set<String> keys = new HashSet<>();
+        final Set<String> mergedKeys = new HashSet<>();
+        for(Map.Entry<String, FileSequences> entry : fileSequencesMap.entrySet()) {
+            final String key = entry.getKey();
+            final FileSequences fileSequences = entry.getValue();
+            if(fileSequences.localeSequenceSize() == 0) continue;
+            final long start = System.nanoTime();
+            final List<Config> layers = new ArrayList<>(fileSequences.localeSequenceSize());
+            addLocaleLayers(layers, fileSequences, null);
+            final Config locale = merge(layers);
+            if(!locale.isResolved()) return null;
+            if(LayeredConfig.overlays(locale.root(), unresolvedBase.hasPath(key) ? unresolvedBase.getValue(key) : null)) {
+                overlay = overlay.withValue(key, locale.root());
+                keys.add(key);
+            } else {
+                // the locale layers hide default values or objects, only merging the key in full tells which
+                overlay = overlay.withValue(key, mergeKey(key, fileSequences, null).root());
+                mergedKeys.add(key);
+            }
+            buildListener.keyMerged(key, fileSequences.localeSequenceSize(), System.nanoTime() - start);
+        }
+        return new LayeredConfig(overlay, keys, mergedKeys, base);
+    }
+
+    public LocaleIndex buildLocaleIndex() {
+        if(!this.copy) return copy().buildLocaleIndex();
+        buildRootConfig();
+        return LocaleIndex.of(scanFiles());
+    }
+
+    public Map<File, Config> buildProfiles() {
+        requireState(this.source == null, "Building profiles requires RootDir");
+        if(!this.copy) return copy().buildProfiles();
+        final Config rootConfig = buildRootConfig();
+        requireState(this.rootDir != null, "Building profiles requires RootDir");
+        final File root = fileHierarchy(this.rootDir, this.rootDir).get(0);
+        final Map<File, Config> profiles = new LinkedHashMap<>();
+        buildProfiles(root, root, rootConfig, Collections.<String, ProfileChain>emptyMap(), new HashSet<File>(), profiles);
+        return profiles;
+    }
+
+    public ConfigView buildLazy() {
+        if(!this.copy) return copy().buildLazy();
+        final Config rootConfig = buildRootConfig();
+        return new LazyConfig(this, rootConfig, buildFileSequencesMap());
+    }
+
+    public ReloadingConfig buildReloading() {
+        requireState(this.source == null, "Reloading requires RootDir and ProfileDir");
+        if(!this.copy) return copy().buildReloading();
+        final Config rootConfig = buildRootConfig();
+        return new ReloadingConfig(this, rootConfig, fileHierarchy(this.profileDir, this.rootDir));
+    }
+
+    private void buildProfiles(File root, File dir, Config rootConfig, Map<String, ProfileChain> parentChains,
+                               Set<File> visited, Map<File, Config> profiles) {
+        if(!visited.add(dir)) return;
+        final Map<String, FileSequences> fileSequencesMap = buildFileSequencesMap(scanDirectory(dir), this.locale);
+        final Map<ScannedFile, Config> parsed = parseAll(directExecutor, fileSequencesMap.values());
+        final Map<String, ProfileChain> chains = new HashMap<>(parentChains);
+        for(Map.Entry<String, FileSequences> entry : fileSequencesMap.entrySet()) {
+            final long start = System.nanoTime();
+            chains.put(entry.getKey(), new ProfileChain(parentChains.get(entry.getKey()), entry.getValue(), parsed));
+            buildListener.keyMerged(entry.getKey(), entry.getValue().size(), System.nanoTime() - start);
+        }
+        Config cfg = rootConfig;
+        for(Map.Entry<String, ProfileChain> entry : chains.entrySet()) {
+            cfg = cfg.withValue(entry.getKey(), entry.getValue().merged.root());
+        }
+        profiles.put(dir, resolve(cfg));
+        final List<File> subDirs = new ArrayList<>();
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(dir.toPath())) {
+            for(Path path : stream) {
+                if(Files.isDirectory(path)) subDirs.add(path.toFile().getCanonicalFile());
+            }
+        } catch (IOException ioe) {
+            throw new RuntimeException(ioe);
+        }
+        Collections.sort(subDirs);
+        for(File subDir : subDirs) {
+            if(hasParent(subDir, root)) buildProfiles(root, subDir, rootConfig, chains, visited, profiles);
+        }
+    }
+
+    /**
+     * The merged layers of one key from a directory up to RootDir, kept per file category
+     * so that subdirectories only merge their own files on top of them. Each category is a
+     * withFallback fold, which stands for its layers since withFallback is associative; a
+     * rebuilt copy of it would not, losing which objects hide the layers below them.
+     */
+    private class ProfileChain {
+        private final Config[] categories = new Config[5];
+        private final Config merged;
+
+        private ProfileChain(ProfileChain parent, FileSequences fileSequences, Map<ScannedFile, Config> parsed) {
+            final List<List<ScannedFile>> sequences = Arrays.asList(
+                    fileSequences.currentLocaleSequence_2, fileSequences.currentLocaleSequence_1,
+                    fileSequences.defaultLocaleSequence_2, fileSequences.defaultLocaleSequence_1,
+                    fileSequences.defaultSequence);
+            final List<Config> mergedCategories = new ArrayList<>(categories.length);
+            for(int i = 0; i < categories.length; i++) {
+                final List<Config> layers = new ArrayList<>();
+                addLayers(layers, sequences.get(i), parsed);
+                if(parent != null && parent.categories[i] != null) layers.add(parent.categories[i]);
+                if(!layers.isEmpty()) {
+                    categories[i] = merge(layers);
+                    mergedCategories.add(categories[i]);
+                }
+            }
+            this.merged = merge(mergedCategories);
+        }
     }
 
     static boolean hasParent(File child, File parent) {
@@ -87,17 +471,28 @@ public class ConfigBuilder {
 
     static List<File> fileHierarchy(File child, File parent) {
         try {
-            final List<File> l = new LinkedList<>();
-            for(File f = child; !f.getCanonicalFile().equals(parent.getCanonicalFile()); f=f.getParentFile()){
+            final File canonicalParent = parent.getCanonicalFile();
+            final List<File> l = new ArrayList<>();
+            for(File f = child.getCanonicalFile(); !f.equals(canonicalParent); f=f.getParentFile()){
+                requireState(f.getParentFile() != null, "ProfileDir must be a RootDir subdirectory");
                 l.add(f);
             }
-            l.add(parent);
+            l.add(canonicalParent);
             return l;
         } catch (IOException ioe) {
             throw new RuntimeException(ioe);
         }
     }
 
+    static List<String> pathHierarchy(String profilePath) {
+        final List<String> l = new ArrayList<>();
+        for(String p = profilePath; !p.isEmpty(); p = p.substring(0, Math.max(p.lastIndexOf('/'), 0))) {
+            l.add(p);
+        }
+        l.add("");
+        return l;
+    }
+
     private static void requireArgument(boolean test, String msg) {
         if(!test) throw new IllegalArgumentException(msg);
     }
@@ -114,25 +509,44 @@ public class ConfigBuilder {
         requireState(configFile == null || (rootDir == null && profileDir == null), "ConfigFile must be an alternative to RootDir and ProfileDir");
     }
 
+    private void checkSourceVersusFiles() {
+        requireState(source == null || (rootDir == null && profileDir == null && configFile == null), "Source must be an alternative to RootDir, ProfileDir and ConfigFile");
+    }
+
     private void checkState() {
         this.checkDirs();
         this.checkDirsVersusFile();
+        this.checkSourceVersusFiles();
     }
 
     private FileSequences getFileSequences(String fileName, Map<String, FileSequences> fileSequencesMap) {
-        if(!fileSequencesMap.containsKey(fileName)) {
-            fileSequencesMap.put(fileName,new FileSequences());
+        FileSequences fileSequences = fileSequencesMap.get(fileName);
+        if(fileSequences == null) {
+            fileSequences = new FileSequences();
+            fileSequencesMap.put(fileName, fileSequences);
         }
-        return fileSequencesMap.get(fileName);
+        return fileSequences;
     }
 
 
-    private static class FileSequences {
-        private final List<File> defaultSequence = new LinkedList<>();
-        private final List<File> defaultLocaleSequence_1 = new LinkedList<>();
-        private final List<File> defaultLocaleSequence_2 = new LinkedList<>();
-        private final List<File> currentLocaleSequence_1 = new LinkedList<>();
-        private final List<File> currentLocaleSequence_2 = new LinkedList<>();
+    static class FileSequences {
+        private final List<ScannedFile> defaultSequence = new LinkedList<>();
+        private final List<ScannedFile> defaultLocaleSequence_1 = new LinkedList<>();
+        private final List<ScannedFile> defaultLocaleSequence_2 = new LinkedList<>();
+        private final List<ScannedFile> currentLocaleSequence_1 = new LinkedList<>();
+        private final List<ScannedFile> currentLocaleSequence_2 = new LinkedList<>();
+
+        int localeSequenceSize() {
+            return currentLocaleSequence_2.size() + currentLocaleSequence_1.size();
+        }
+
+        int defaultSequenceSize() {
+            return defaultLocaleSequence_2.size() + defaultLocaleSequence_1.size() + defaultSequence.size();
+        }
+
+        int size() {
+            return localeSequenceSize() + defaultSequenceSize();
+        }
 
         @Override
         public String toString() {
@@ -146,73 +560,276 @@ public class ConfigBuilder {
         }
     }
 
-    private static final FileFilter mandatoryFileFilter = new FileFilter() {
+    private static final List<String> supportedFiletypes = Arrays.asList(".properties", ".json", ".conf");
 
-        private final List<String> supportedFiletypes = Arrays.asList(".properties", ".json", ".conf");
+    private static boolean isSupportedFiletype(String fname) {
+        for(String suffix : supportedFiletypes) {
+            if(fname.endsWith(suffix)) return true;
+        }
+        return false;
+    }
 
-        @Override
-        public boolean accept(File file) {
-            if(!file.isFile()) return false;
-            final String fname = file.getName();
-            for(String suffix : supportedFiletypes) {
-                if(fname.endsWith(suffix)) return true;
+    private static ConfigSyntax syntaxOf(String fname) {
+        if(fname.endsWith(".json")) return ConfigSyntax.JSON;
+        if(fname.endsWith(".properties")) return ConfigSyntax.PROPERTIES;
+        return ConfigSyntax.CONF;
+    }
+
+    static class ScannedFile {
+        private final File file;
+        private final long size;
+        private final long lastModified;
+        private final long version;
+        private final FileNameClassifier.FileName fileName;
+        private final ConfigSource source;
+        private final String path;
+
+        ScannedFile(File file, long size, long lastModified) {
+            this(file, size, lastModified, lastModified);
+        }
+
+        ScannedFile(File file, long size, long lastModified, long version) {
+            this(file, size, lastModified, version, null, null);
+        }
+
+        ScannedFile(ConfigSource source, ConfigSource.Entry entry) {
+            this(new File(source.description(), entry.path()), entry.size(), entry.lastModified(), entry.version(),
+                    source, entry.path());
+        }
+
+        private ScannedFile(File file, long size, long lastModified, long version, ConfigSource source, String path) {
+            this.file = file;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.version = version;
+            this.fileName = FileNameClassifier.parse(file.getName());
+            this.source = source;
+            this.path = path;
+        }
+
+        Config parse() {
+            final boolean properties = syntax() == ConfigSyntax.PROPERTIES;
+            if(source == null && !properties) return ConfigFactory.parseFile(file);
+            try(Reader reader = openReader()) {
+                return properties ? PropertiesParser.parse(reader, file.getPath(), null) : ConfigFactory.parseReader(reader, parseOptions());
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
             }
-            return false;
         }
-    };
 
-    private static String stripFiletypeSuffix(String fileName) {
-        final int dotIndex = fileName.lastIndexOf('.');
-        if(dotIndex > -1) return fileName.substring(0, dotIndex);
-        else return fileName;
-    }
+        Config parse(String text, ContentDeduplicator deduplicator) {
+            if(syntax() == ConfigSyntax.PROPERTIES) {
+                return PropertiesParser.parse(new StringReader(text), file.getPath(), deduplicator);
+            }
+            return ConfigFactory.parseString(text, parseOptions());
+        }
+
+        Reader openReader() throws IOException {
+            return source == null ? Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8) : source.openReader(path);
+        }
+
+        ConfigSyntax syntax() {
+            return syntaxOf(file.getName());
+        }
+
+        private ConfigParseOptions parseOptions() {
+            return ConfigParseOptions.defaults().setSyntax(syntax()).setOriginDescription(file.getPath());
+        }
+
+        File file() {
+            return file;
+        }
+
+        FileNameClassifier.FileName fileName() {
+            return fileName;
+        }
+
+        long size() {
+            return size;
+        }
+
+        long lastModified() {
+            return lastModified;
+        }
 
-    private static String stripSuffix(String fileName, String suffix) {
-        return fileName.substring(0,fileName.length()-suffix.length());
+        /**
+         * @return a value that changes with the contents even when size and modification time do not
+         */
+        long version() {
+            return version;
+        }
+
+        @Override
+        public String toString() {
+            return file.toString();
+        }
     }
 
-    private static boolean isLocalizedFile(String fileName) {
-        return fileName.matches(".*_[a-z]{2}(_[A-Z]{2})?");
+    private List<ScannedFile> scanFiles() {
+        final List<ScannedFile> scannedFiles = new ArrayList<>();
+        if(this.source != null) {
+            requireState(this.source.isDirectory(this.profilePath), "ProfilePath must be a Source directory");
+            for(String currentDir : pathHierarchy(this.profilePath)) {
+                scannedFiles.addAll(scanSourceDirectory(currentDir));
+            }
+        } else {
+            for(File currentDir : fileHierarchy(this.profileDir, this.rootDir)) {
+                scannedFiles.addAll(scanDirectory(currentDir));
+            }
+        }
+        return scannedFiles;
     }
 
-    private Map<String, FileSequences> buildFileSequencesMap() {
-        final Map<String, FileSequences> map = new HashMap<>();
-        final Locale defaultLocale = Locale.getDefault();
-        final boolean hasLocale = this.locale != null && !this.locale.equals(defaultLocale);
-        for(File currentDir : fileHierarchy(this.profileDir, this.rootDir)) {
-            List<File> files = Arrays.asList(currentDir.listFiles(this.fileFilter));
-            Collections.sort(files);
-            for(File currentFile : files) {
-                final String fileName = stripFiletypeSuffix(currentFile.getName());
-                if(hasLocale) {
-                    if(!this.locale.getCountry().isEmpty()){
-                        final String suffix = String.format("_%s_%s", locale.getLanguage(), locale.getCountry());
-                        if(fileName.endsWith(suffix)){
-                            getFileSequences(stripSuffix(fileName, suffix), map).currentLocaleSequence_2.add(currentFile);
-                        }
-                    }
-                    final String suffix = String.format("_%s", locale.getLanguage());
-                    if(fileName.endsWith(suffix)){
-                        getFileSequences(stripSuffix(fileName, suffix), map).currentLocaleSequence_1.add(currentFile);
-                    }
+    private List<ScannedFile> scanSourceDirectory(String dir) {
+        final List<ScannedFile> scannedFiles = new ArrayList<>();
+        int rejected = 0;
+        try {
+            for(ConfigSource.Entry entry : this.source.list(dir)) {
+                final ScannedFile scannedFile = new ScannedFile(this.source, entry);
+                if(accepts(scannedFile.file)) {
+                    scannedFiles.add(scannedFile);
+                } else {
+                    rejected++;
                 }
-                if(!defaultLocale.getCountry().isEmpty()){
-                    final String suffix = String.format("_%s_%s", defaultLocale.getLanguage(), defaultLocale.getCountry());
-                    if(fileName.endsWith(suffix)){
-                        getFileSequences(stripSuffix(fileName, suffix), map).defaultLocaleSequence_2.add(currentFile);
+            }
+        } catch (IOException ioe) {
+            throw new RuntimeException(ioe);
+        }
+        Collections.sort(scannedFiles, fileOrder);
+        buildListener.directoryScanned(new File(this.source.description(), dir), scannedFiles.size(), rejected);
+        return scannedFiles;
+    }
+
+    List<ScannedFile> scanDirectory(final File dir) {
+        final List<ScannedFile> scannedFiles = new ArrayList<>();
+        final int[] rejected = {0};
+        try {
+            Files.walkFileTree(dir.toPath(), EnumSet.of(FileVisitOption.FOLLOW_LINKS), 1, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+                    final ScannedFile scannedFile = scanFile(new File(dir, path.getFileName().toString()), attrs);
+                    if(scannedFile != null) {
+                        scannedFiles.add(scannedFile);
+                    } else if(!attrs.isDirectory()) {
+                        rejected[0]++;
                     }
+                    return FileVisitResult.CONTINUE;
                 }
-                final String suffix = String.format("_%s", defaultLocale.getLanguage());
-                if(fileName.endsWith(suffix)){
-                    getFileSequences(stripSuffix(fileName, suffix), map).defaultLocaleSequence_1.add(currentFile);
+
+                @Override
+                public FileVisitResult visitFileFailed(Path path, IOException ioe) {
+                    rejected[0]++;
+                    return FileVisitResult.CONTINUE;
                 }
-                if(!isLocalizedFile(fileName)) getFileSequences(fileName, map).defaultSequence.add(currentFile);
+            });
+        } catch (IOException ioe) {
+            throw new RuntimeException(ioe);
+        }
+        Collections.sort(scannedFiles, fileOrder);
+        buildListener.directoryScanned(dir, scannedFiles.size(), rejected[0]);
+        return scannedFiles;
+    }
+
+    ScannedFile scanFile(File file) {
+        try {
+            return scanFile(file, Files.readAttributes(file.toPath(), BasicFileAttributes.class));
+        } catch (IOException ioe) {
+            return null;
+        }
+    }
+
+    private ScannedFile scanFile(File file, BasicFileAttributes attrs) {
+        if(!attrs.isRegularFile() || !accepts(file)) return null;
+        return new ScannedFile(file, attrs.size(), attrs.lastModifiedTime().toMillis(),
+                attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+    }
+
+    private boolean accepts(File file) {
+        return isSupportedFiletype(file.getName()) && (this.fileFilter == null || this.fileFilter.accept(file));
+    }
+
+    private static final Comparator<ScannedFile> fileOrder = new Comparator<ScannedFile>() {
+        @Override
+        public int compare(ScannedFile f1, ScannedFile f2) {
+            return f1.file.compareTo(f2.file);
+        }
+    };
+
+    Set<String> keysOf(ScannedFile scannedFile) {
+        return buildFileSequencesMap(Collections.singletonList(scannedFile), this.locale).keySet();
+    }
+
+    ConfigObject mergeKey(String key, List<ScannedFile> scannedFiles) {
+        final FileSequences fileSequences = buildFileSequencesMap(scannedFiles, this.locale).get(key);
+        return fileSequences == null ? null : mergeKey(key, fileSequences, null).root();
+    }
+
+    Config resolve(Config config) {
+        final long start = System.nanoTime();
+        final Config resolved = config.resolve();
+        buildListener.configResolved(System.nanoTime() - start);
+        return resolved;
+    }
+
+    ParseCache parseCache() {
+        return this.parseCache;
+    }
+
+    Map<String, FileSequences> buildFileSequencesMap() {
+        return buildFileSequencesMap(scanFiles(), this.locale);
+    }
+
+    private Map<String, FileSequences> buildFileSequencesMap(List<ScannedFile> scannedFiles, Locale locale) {
+        final Map<String, FileSequences> map = new HashMap<>();
+        final FileNameClassifier classifier = new FileNameClassifier(locale, Locale.getDefault());
+        for(ScannedFile currentFile : scannedFiles) {
+            final FileNameClassifier.FileName fileName = currentFile.fileName;
+            String key;
+            if((key = classifier.currentLocaleKey_2(fileName)) != null) {
+                getFileSequences(key, map).currentLocaleSequence_2.add(currentFile);
+            }
+            if((key = classifier.currentLocaleKey_1(fileName)) != null) {
+                getFileSequences(key, map).currentLocaleSequence_1.add(currentFile);
+            }
+            if((key = classifier.defaultLocaleKey_2(fileName)) != null) {
+                getFileSequences(key, map).defaultLocaleSequence_2.add(currentFile);
+            }
+            if((key = classifier.defaultLocaleKey_1(fileName)) != null) {
+                getFileSequences(key, map).defaultLocaleSequence_1.add(currentFile);
+            }
+            if((key = classifier.defaultKey(fileName)) != null) {
+                getFileSequences(key, map).defaultSequence.add(currentFile);
             }
         }
         return map;
     }
 
-    private Config buildRootConfig() {
+    private Config buildWithSnapshot() {
+        final Config rootConfig = buildRootConfig();
+        final List<ScannedFile> scannedFiles = scanFiles();
+        final ConfigSnapshot.Manifest manifest = manifest(scannedFiles);
+        final Config snapshot = ConfigSnapshot.readIfMatches(this.snapshotFile, manifest);
+        if(snapshot != null) return snapshot;
+        final Config config = resolve(buildConfig(rootConfig, buildFileSequencesMap(scannedFiles, this.locale)));
+        try {
+            ConfigSnapshot.write(config, manifest, this.snapshotFile);
+        } catch (IOException | RuntimeException e) {
+            // the snapshot only speeds up the next start, a read-only or full directory must not fail this one
+        }
+        return config;
+    }
+
+    private ConfigSnapshot.Manifest manifest(List<ScannedFile> scannedFiles) {
+        final ConfigSnapshot.Manifest manifest = new ConfigSnapshot.Manifest(
+                String.format("%s|%s", this.locale, Locale.getDefault()));
+        if(this.configFile != null) manifest.add(this.configFile);
+        for(ScannedFile scannedFile : scannedFiles) {
+            manifest.add(scannedFile.file, scannedFile.size, scannedFile.lastModified, scannedFile.version);
+        }
+        return manifest;
+    }
+
+    Config buildRootConfig() {
         if(this.configFile == null) {
             return ConfigFactory.empty();
         } else {
@@ -236,47 +853,167 @@ public class ConfigBuilder {
         }
     }
 
-    private final Config buildConfig(Config rootConfig, Map<String, FileSequences> fileSequencesMap) {
-        final ConfigResolveOptions resolvingOptions =  ConfigResolveOptions.defaults().setAllowUnresolved(true);
-        for(String key : fileSequencesMap.keySet()) {
-            final FileSequences fileSequences = fileSequencesMap.get(key);
-            Config cfg = ConfigFactory.empty();
-            for(File f : fileSequences.currentLocaleSequence_2) {
-                cfg = cfg.withFallback(ConfigFactory.parseFile(f));
-            }
-            for(File f : fileSequences.currentLocaleSequence_1) {
-                cfg = cfg.withFallback(ConfigFactory.parseFile(f));
+    final Config buildConfig(Config rootConfig, final Map<String, FileSequences> fileSequencesMap) {
+        if(this.executor == null && this.parallelism == 1) {
+            for(String key : fileSequencesMap.keySet()) {
+                rootConfig = rootConfig.withValue(key, mergeKey(key, fileSequencesMap.get(key), null).root());
             }
-            for(File f : fileSequences.defaultLocaleSequence_2) {
-                cfg = cfg.withFallback(ConfigFactory.parseFile(f));
-            }
-            for(File f : fileSequences.defaultLocaleSequence_1) {
-                cfg = cfg.withFallback(ConfigFactory.parseFile(f));
-            }
-            for(File f : fileSequences.defaultSequence) {
-                cfg = cfg.withFallback(ConfigFactory.parseFile(f));
+        } else {
+            final ExecutorService ownExecutor = this.executor == null ? newExecutor(this.parallelism) : null;
+            try {
+                final Executor exec = ownExecutor == null ? this.executor : ownExecutor;
+                final Map<ScannedFile, Config> parsed = parseAll(exec, fileSequencesMap.values());
+                final List<String> keys = new ArrayList<>(fileSequencesMap.keySet());
+                final List<Callable<Config>> merges = new ArrayList<>(keys.size());
+                for(final String key : keys) {
+                    merges.add(new Callable<Config>() {
+                        @Override
+                        public Config call() {
+                            return mergeKey(key, fileSequencesMap.get(key), parsed);
+                        }
+                    });
+                }
+                final List<Config> merged = invokeAll(exec, merges);
+                for(int i = 0; i < keys.size(); i++) {
+                    rootConfig = rootConfig.withValue(keys.get(i), merged.get(i).root());
+                }
+            } finally {
+                if(ownExecutor != null) ownExecutor.shutdown();
             }
-            rootConfig = rootConfig.withValue(key, cfg.root());
         }
-        rootConfig = rootConfig.resolve();
         return rootConfig;
     }
 
-    private static class AndFileFilter implements FileFilter{
-        final private FileFilter first;
-        final private FileFilter second;
+    private Map<ScannedFile, Config> parseAll(Executor executor, Collection<FileSequences> fileSequences) {
+        final Set<ScannedFile> files = new LinkedHashSet<>();
+        for(FileSequences fs : fileSequences) {
+            files.addAll(fs.currentLocaleSequence_2);
+            files.addAll(fs.currentLocaleSequence_1);
+            files.addAll(fs.defaultLocaleSequence_2);
+            files.addAll(fs.defaultLocaleSequence_1);
+            files.addAll(fs.defaultSequence);
+        }
+        final List<Callable<Config>> parses = new ArrayList<>(files.size());
+        for(final ScannedFile f : files) {
+            parses.add(new Callable<Config>() {
+                @Override
+                public Config call() {
+                    return parse(f, null);
+                }
+            });
+        }
+        final List<Config> configs = invokeAll(executor, parses);
+        final Map<ScannedFile, Config> parsed = new HashMap<>();
+        int i = 0;
+        for(ScannedFile f : files) {
+            parsed.put(f, configs.get(i++));
+        }
+        return parsed;
+    }
 
-        public AndFileFilter(FileFilter first, FileFilter second) {
-            this.first = first;
-            this.second = second;
+    /**
+     * Runs the tasks on executor and waits for them, running the ones that have not started yet in the
+     * calling thread. A build running on a bounded executor can so submit to the same executor without
+     * waiting for threads that are all busy waiting.
+     */
+    private static <T> List<T> invokeAll(Executor executor, List<Callable<T>> tasks) {
+        final List<FutureTask<T>> futures = new ArrayList<>(tasks.size());
+        for(Callable<T> task : tasks) {
+            final FutureTask<T> future = new FutureTask<>(task);
+            futures.add(future);
+            executor.execute(future);
+        }
+        final List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for(FutureTask<T> future : futures) {
+                future.run();
+                results.add(future.get());
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ie);
+        } catch (ExecutionException ee) {
+            final Throwable cause = ee.getCause();
+            if(cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if(cause instanceof Error) throw (Error) cause;
+            throw new RuntimeException(cause);
+        } finally {
+            for(FutureTask<T> future : futures) {
+                future.cancel(true);
+            }
         }
+        return results;
+    }
 
+    private static final Executor directExecutor = new Executor() {
         @Override
-        public boolean accept(File file) {
-            return first.accept(file) && second.accept(file);
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private static ExecutorService newExecutor(int parallelism) {
+        return Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                final Thread t = new Thread(r, "i18ncfg-builder");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    private Config mergeKey(String key, FileSequences fileSequences, Map<ScannedFile, Config> parsed) {
+        final long start = System.nanoTime();
+        final Config merged = mergeFileSequences(fileSequences, parsed);
+        buildListener.keyMerged(key, fileSequences.size(), System.nanoTime() - start);
+        return merged;
+    }
+
+    Config mergeFileSequences(FileSequences fileSequences, Map<ScannedFile, Config> parsed) {
+        final List<Config> layers = new ArrayList<>(fileSequences.size());
+        addLocaleLayers(layers, fileSequences, parsed);
+        addDefaultLayers(layers, fileSequences, parsed);
+        return merge(layers);
+    }
+
+    /**
+     * Merges layers, highest priority first, with withFallback. Only the library knows which objects
+     * ignore their fallbacks and only it can keep the origins of merged values.
+     */
+    private static Config merge(List<Config> layers) {
+        if(layers.isEmpty()) return ConfigFactory.empty();
+        Config cfg = layers.get(0);
+        for(int i = 1; i < layers.size(); i++) {
+            cfg = cfg.withFallback(layers.get(i));
         }
+        return cfg;
+    }
+
+    private void addLocaleLayers(List<Config> layers, FileSequences fileSequences, Map<ScannedFile, Config> parsed) {
+        addLayers(layers, fileSequences.currentLocaleSequence_2, parsed);
+        addLayers(layers, fileSequences.currentLocaleSequence_1, parsed);
+    }
+
+    private void addDefaultLayers(List<Config> layers, FileSequences fileSequences, Map<ScannedFile, Config> parsed) {
+        addLayers(layers, fileSequences.defaultLocaleSequence_2, parsed);
+        addLayers(layers, fileSequences.defaultLocaleSequence_1, parsed);
+        addLayers(layers, fileSequences.defaultSequence, parsed);
     }
 
+    private void addLayers(List<Config> layers, List<ScannedFile> files, Map<ScannedFile, Config> parsed) {
+        for(ScannedFile f : files) {
+            layers.add(parse(f, parsed));
+        }
+    }
+
+    private Config parse(ScannedFile file, Map<ScannedFile, Config> parsed) {
+        final Config config = parsed == null ? null : parsed.get(file);
+        return config != null ? config : parseCache.parse(file, buildListener, deduplicator);
+    }
+
+    private final boolean copy;
+
     private File rootDir = null;
 
     private File profileDir = null;
@@ -285,6 +1022,24 @@ public class ConfigBuilder {
 
     private Locale locale = null;
 
-    private FileFilter fileFilter = mandatoryFileFilter;
+    private FileFilter fileFilter = null;
+
+    private ParseCache parseCache = ParseCache.shared();
+
+    private Executor executor = null;
+
+    private int parallelism = 1;
+
+    private File snapshotFile = null;
+
+    private BuildListener buildListener = BuildListener.NONE;
+
+    private ConfigRegistry configRegistry = null;
+
+    private ConfigSource source = null;
+
+    private String profilePath = "";
+
+    private ContentDeduplicator deduplicator = null;
 
 }
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiles the configs of a RootDir to ConfigSnapshot files at build time, one per profile
+ * and locale, so that they can be loaded from the classpath without parsing.
+ *
+ * Usage: ConfigCompiler --root-dir dir --output-dir dir [--profiles p1,p2/p3] [--locales default,it_IT]
+ *
+ * Like any build the "default" locale falls back to the JVM default locale, here the one of the build.
+ */
+public final class ConfigCompiler {
+
+    public static final String EXTENSION = ".i18ncfg";
+
+    public static final String DEFAULT_LOCALE_NAME = "default";
+
+    private ConfigCompiler(){}
+
+    public static void main(String[] args) {
+        File rootDir = null;
+        File outputDir = null;
+        String profiles = "";
+        String locales = DEFAULT_LOCALE_NAME;
+        for(int i = 0; i < args.length; i++) {
+            final String value = i + 1 < args.length ? args[i + 1] : null;
+            switch(args[i]) {
+                case "--root-dir": rootDir = new File(value); i++; break;
+                case "--output-dir": outputDir = new File(value); i++; break;
+                case "--profiles": profiles = value; i++; break;
+                case "--locales": locales = value; i++; break;
+                default: fail("Unknown argument " + args[i]);
+            }
+        }
+        if(rootDir == null || outputDir == null) fail("Usage: ConfigCompiler --root-dir dir --output-dir dir [--profiles p1,p2/p3] [--locales default,it_IT]");
+        try {
+            final List<File> files = compile(rootDir, split(profiles), parseLocales(split(locales)), outputDir);
+            System.out.printf("Compiled %d configs to %s%n", files.size(), outputDir);
+        } catch (RuntimeException re) {
+            fail(re.getMessage());
+        }
+    }
+
+    public static List<File> compile(File rootDir, List<String> profilePaths, List<Locale> locales, File outputDir) {
+        final List<File> files = new ArrayList<>();
+        for(String profilePath : profilePaths) {
+            final String profile = ConfigBuilder.normalizePath(profilePath);
+            final File profileDir = new File(rootDir, profile);
+            if(!profileDir.isDirectory()) throw new IllegalArgumentException(String.format("Profile '%s' is not a directory", profile));
+            final Map<Locale, Config> configs;
+            try {
+                configs = ConfigBuilder.create().withRootDir(rootDir).withProfileDir(profileDir).buildAll(locales);
+            } catch (ConfigException ce) {
+                throw new IllegalStateException(String.format("Profile '%s' cannot be compiled: %s", profile, ce.getMessage()), ce);
+            }
+            for(Map.Entry<Locale, Config> entry : configs.entrySet()) {
+                final File file = new File(outputDir, resourceName(profile, entry.getKey()));
+                file.getParentFile().mkdirs();
+                try(OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+                    ConfigSnapshot.write(entry.getValue(), out);
+                } catch (IOException ioe) {
+                    throw new RuntimeException(ioe);
+                }
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    public static Config load(ClassLoader classLoader, String resourceDir, String profilePath, Locale locale) {
+        final String name = resourceDir.isEmpty() ? resourceName(ConfigBuilder.normalizePath(profilePath), locale)
+                : resourceDir + '/' + resourceName(ConfigBuilder.normalizePath(profilePath), locale);
+        final InputStream in = classLoader.getResourceAsStream(name);
+        if(in == null) throw new IllegalArgumentException("No compiled config " + name);
+        try(InputStream buffered = new BufferedInputStream(in)) {
+            return ConfigSnapshot.read(buffered);
+        } catch (IOException ioe) {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    static String resourceName(String profile, Locale locale) {
+        final String name = (locale == null ? DEFAULT_LOCALE_NAME : locale.toLanguageTag()) + EXTENSION;
+        return profile.isEmpty() ? name : profile + '/' + name;
+    }
+
+    static List<Locale> parseLocales(List<String> names) {
+        final List<Locale> locales = new ArrayList<>(names.size());
+        for(String name : names) {
+            locales.add(name.isEmpty() || name.equals(DEFAULT_LOCALE_NAME) ? null
+                    : new Locale.Builder().setLanguageTag(name.replace('_', '-')).build());
+        }
+        return locales;
+    }
+
+    private static List<String> split(String list) {
+        final List<String> values = new ArrayList<>();
+        for(String value : Arrays.asList(list.split(",", -1))) {
+            values.add(value.trim());
+        }
+        return values;
+    }
+
+    private static void fail(String message) {
+        System.err.println(message);
+        System.exit(1);
+    }
+
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigUtil;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The changes between two built configs, e.g. two versions, profiles or locales. Objects with
+ * equal {@link ConfigDigest} hashes are skipped, so the cost follows the changed objects.
+ * Values are reported at the highest path that changed: an object added, removed or replaced
+ * by a value is one entry.
+ */
+public final class ConfigDiff {
+
+    public static ConfigDiff between(Config older, Config newer) {
+        return between(ConfigDigest.of(older), ConfigDigest.of(newer));
+    }
+
+    public static ConfigDiff between(ConfigDigest older, ConfigDigest newer) {
+        final ConfigDiff diff = new ConfigDiff();
+        diff.compare(new ArrayList<String>(), older.root(), newer.root());
+        return diff;
+    }
+
+    private ConfigDiff() {
+    }
+
+    /**
+     * @return the added or changed values by path, with their new value
+     */
+    public Map<String, ConfigValue> changes() {
+        return Collections.unmodifiableMap(changes);
+    }
+
+    public Set<String> removals() {
+        return Collections.unmodifiableSet(removals);
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty() && removals.isEmpty();
+    }
+
+    /**
+     * @return a config holding the changes: delta().withFallback(older) without the removals is the newer config
+     */
+    public Config delta() {
+        Config delta = ConfigFactory.empty();
+        for(Map.Entry<String, ConfigValue> change : changes.entrySet()) {
+            delta = delta.withValue(change.getKey(), change.getValue());
+        }
+        return delta;
+    }
+
+    public int visitedObjects() {
+        return visitedObjects;
+    }
+
+    public int skippedObjects() {
+        return skippedObjects;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConfigDiff [changes: %d, removals: %d, visited objects: %d, skipped objects: %d]",
+                changes.size(), removals.size(), visitedObjects, skippedObjects);
+    }
+
+    private void compare(List<String> path, ConfigDigest.Node older, ConfigDigest.Node newer) {
+        if(older == newer || older.hash == newer.hash) {
+            skippedObjects++;
+            return;
+        }
+        visitedObjects++;
+        final ConfigObject olderObject = older.object;
+        final ConfigObject newerObject = newer.object;
+        for(Map.Entry<String, ConfigValue> entry : newerObject.entrySet()) {
+            path.add(entry.getKey());
+            final ConfigValue olderValue = olderObject.get(entry.getKey());
+            final ConfigValue newerValue = entry.getValue();
+            if(olderValue != null && olderValue.valueType() == ConfigValueType.OBJECT
+                    && newerValue.valueType() == ConfigValueType.OBJECT) {
+                compare(path, older.children.get(entry.getKey()), newer.children.get(entry.getKey()));
+            } else if(olderValue == null || !olderValue.equals(newerValue)) {
+                changes.put(ConfigUtil.joinPath(path), newerValue);
+            }
+            path.remove(path.size() - 1);
+        }
+        for(String key : olderObject.keySet()) {
+            if(newerObject.containsKey(key)) continue;
+            path.add(key);
+            removals.add(ConfigUtil.joinPath(path));
+            path.remove(path.size() - 1);
+        }
+    }
+
+    private final Map<String, ConfigValue> changes = new LinkedHashMap<>();
+
+    private final Set<String> removals = new LinkedHashSet<>();
+
+    private int visitedObjects = 0;
+
+    private int skippedObjects = 0;
+
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigRenderOptions;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueType;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Merkle hashes of the objects of a built config, computed in one pass and kept with it so
+ * that {@link ConfigDiff} only descends into objects whose hashes differ. Objects that are
+ * the same instance as in a previous digest, as unchanged keys of a rebuild often are,
+ * reuse its hashes instead of being hashed again.
+ */
+public final class ConfigDigest {
+
+    public static ConfigDigest of(Config config) {
+        return of(config, null);
+    }
+
+    public static ConfigDigest of(Config config, ConfigDigest previous) {
+        if(config == null || !config.isResolved()) throw new IllegalArgumentException("Config must be resolved");
+        return new ConfigDigest(config, node(config.root(), previous == null ? null : previous.root));
+    }
+
+    private ConfigDigest(Config config, Node root) {
+        this.config = config;
+        this.root = root;
+    }
+
+    public Config config() {
+        return config;
+    }
+
+    public long hash() {
+        return root.hash;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConfigDigest [%016x]", root.hash);
+    }
+
+    static final class Node {
+        final ConfigObject object;
+        final long hash;
+        final Map<String, Node> children;
+
+        private Node(ConfigObject object, long hash, Map<String, Node> children) {
+            this.object = object;
+            this.hash = hash;
+            this.children = children;
+        }
+    }
+
+    Node root() {
+        return root;
+    }
+
+    private static Node node(ConfigObject object, Node previous) {
+        if(previous != null && previous.object == object) return previous;
+        Map<String, Node> children = Collections.emptyMap();
+        long hash = OBJECT_SEED;
+        for(Map.Entry<String, ConfigValue> entry : object.entrySet()) {
+            final ConfigValue value = entry.getValue();
+            final long valueHash;
+            if(value.valueType() == ConfigValueType.OBJECT) {
+                final Node child = node((ConfigObject) value, previous == null ? null : previous.children.get(entry.getKey()));
+                if(children.isEmpty()) children = new HashMap<>();
+                children.put(entry.getKey(), child);
+                valueHash = child.hash;
+            } else {
+                valueHash = mix(hash(value.render(ConfigRenderOptions.concise())) + value.valueType().ordinal());
+            }
+            // entries are unordered, so they are combined with a commutative sum
+            hash += mix(hash(entry.getKey()) * 31 + valueHash);
+        }
+        return new Node(object, mix(hash), children);
+    }
+
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for(int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final long OBJECT_SEED = 0x9e3779b97f4a7c15L;
+
+    private final Config config;
+
+    private final Node root;
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConfigHolder {
+
+    public interface Listener {
+        void configChanged(Config config);
+    }
+
+    public ConfigHolder(Config config) {
+        if(config == null) throw new IllegalArgumentException("Config must not be null");
+        this.config.set(config);
+    }
+
+    public Config get() {
+        return config.get();
+    }
+
+    public void addListener(Listener listener) {
+        if(listener == null) throw new IllegalArgumentException("Listener must not be null");
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Builds a new config on the executor and swaps it in when done, unless a more recent
+     * reload has been applied meanwhile. get() keeps returning the current config until then.
+     */
+    public Future<Config> reload(ConfigBuilder builder, Executor executor) {
+        if(builder == null) throw new IllegalArgumentException("Builder must not be null");
+        if(executor == null) throw new IllegalArgumentException("Executor must not be null");
+        final Callable<Config> build = builder.buildTask();
+        final long generation = generations.incrementAndGet();
+        final FutureTask<Config> task = new FutureTask<>(new Callable<Config>() {
+            @Override
+            public Config call() throws Exception {
+                final Config config = build.call();
+                swap(generation, config);
+                return config;
+            }
+        });
+        executor.execute(task);
+        return task;
+    }
+
+    void set(Config config) {
+        swap(generations.incrementAndGet(), config);
+    }
+
+    private void swap(long generation, Config config) {
+        synchronized (swapLock) {
+            if(generation < appliedGeneration) return;
+            appliedGeneration = generation;
+            this.config.set(config);
+            for(Listener listener : listeners) {
+                listener.configChanged(config);
+            }
+        }
+    }
+
+    private final AtomicReference<Config> config = new AtomicReference<>();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong generations = new AtomicLong();
+
+    private final Object swapLock = new Object();
+
+    private long appliedGeneration = 0;
+
+}
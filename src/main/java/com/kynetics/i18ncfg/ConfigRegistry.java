@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares built configs by builder settings. An entry keeps the manifest of the files it was built
+ * from and is rebuilt when the files read at lookup no longer match it.
+ */
+public class ConfigRegistry {
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final ConfigRegistry shared = new ConfigRegistry(DEFAULT_CAPACITY, 0, TimeUnit.MILLISECONDS);
+
+    public static ConfigRegistry shared() {
+        return shared;
+    }
+
+    /**
+     * @param maxIdle how long an unused config is kept, 0 keeps it until it is evicted by size
+     */
+    public ConfigRegistry(int capacity, long maxIdle, TimeUnit unit) {
+        if(capacity < 0) throw new IllegalArgumentException("Capacity must not be negative");
+        if(maxIdle < 0) throw new IllegalArgumentException("MaxIdle must not be negative");
+        this.capacity = capacity;
+        this.maxIdleNanos = unit.toNanos(maxIdle);
+        this.entries = new LinkedHashMap<Key, Registration>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Registration> eldest) {
+                if(size() > ConfigRegistry.this.capacity) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    Config get(Key key, ConfigSnapshot.Manifest manifest, Callable<Config> loader) {
+        final Registration registration;
+        final boolean owner;
+        synchronized (this) {
+            final long now = System.nanoTime();
+            evictIdle(now);
+            Registration registered = entries.get(key);
+            if(registered != null && !registered.manifest.equals(manifest)) {
+                entries.remove(key);
+                evictionCount++;
+                registered = null;
+            }
+            if(registered != null) {
+                hitCount++;
+                registered.lastAccess = now;
+                registration = registered;
+                owner = false;
+            } else {
+                missCount++;
+                registration = new Registration(new FutureTask<>(loader), manifest, now);
+                entries.put(key, registration);
+                owner = true;
+            }
+        }
+        if(owner) registration.task.run();
+        try {
+            return registration.task.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ie);
+        } catch (ExecutionException ee) {
+            synchronized (this) {
+                if(entries.get(key) == registration) entries.remove(key);
+            }
+            final Throwable cause = ee.getCause();
+            if(cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if(cause instanceof Error) throw (Error) cause;
+            throw new RuntimeException(cause);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long maxIdle(TimeUnit unit) {
+        return unit.convert(maxIdleNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized int size() {
+        evictIdle(System.nanoTime());
+        return entries.size();
+    }
+
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ConfigRegistry [size: %d/%d, hits: %d, misses: %d, evictions: %d]",
+                entries.size(), capacity, hitCount, missCount, evictionCount);
+    }
+
+    private void evictIdle(long now) {
+        if(maxIdleNanos == 0) return;
+        final Iterator<Registration> it = entries.values().iterator();
+        while(it.hasNext()) {
+            if(now - it.next().lastAccess <= maxIdleNanos) break;
+            it.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Components are compared with equals, a file filter without equals only matches itself.
+     */
+    static final class Key {
+        Key(File rootDir, File profileDir, File configFile, ConfigSource source, String profilePath, Locale locale, FileFilter fileFilter) {
+            this.components = new Object[]{
+                    rootDir == null ? null : rootDir.getAbsoluteFile(),
+                    profileDir == null ? null : profileDir.getAbsoluteFile(),
+                    configFile == null ? null : configFile.getAbsoluteFile(),
+                    source, profilePath, locale, Locale.getDefault(), fileFilter};
+            this.hashCode = Arrays.hashCode(components);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof Key && Arrays.equals(components, ((Key) o).components));
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(components);
+        }
+
+        private final Object[] components;
+        private final int hashCode;
+    }
+
+    private static class Registration {
+        private final FutureTask<Config> task;
+        private final ConfigSnapshot.Manifest manifest;
+        private long lastAccess;
+
+        private Registration(FutureTask<Config> task, ConfigSnapshot.Manifest manifest, long lastAccess) {
+            this.task = task;
+            this.manifest = manifest;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private final int capacity;
+
+    private final long maxIdleNanos;
+
+    private final LinkedHashMap<Key, Registration> entries;
+
+    private long hitCount = 0;
+
+    private long missCount = 0;
+
+    private long evictionCount = 0;
+
+}
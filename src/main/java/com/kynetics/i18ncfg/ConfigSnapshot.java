@@ -0,0 +1,397 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigList;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigParseOptions;
+import com.typesafe.config.ConfigRenderOptions;
+import com.typesafe.config.ConfigSyntax;
+import com.typesafe.config.ConfigUtil;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueFactory;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Binary copy of a resolved config, loaded without parsing. Values are stored typed and lists
+ * structurally. The library can only keep the text of a number it parsed, so a number written
+ * differently from its value, such as 1.10, 007 or 1e3, is stored as text and parsed on load;
+ * so is a list holding one. Values carry the snapshot as their origin.
+ */
+public class ConfigSnapshot {
+
+    private static final int MAGIC = 0x4931384E;
+
+    private static final int VERSION = 4;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final byte OBJECT = 1;
+    private static final byte LIST = 2;
+    private static final byte STRING = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte NULL = 5;
+    private static final byte INT = 6;
+    private static final byte LONG = 7;
+    private static final byte DOUBLE = 8;
+    private static final byte TEXT = 9;
+
+    private static final String ORIGIN_DESCRIPTION = "config snapshot";
+
+    private ConfigSnapshot(){}
+
+    public static void write(Config config, OutputStream out) throws IOException {
+        final DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out));
+        writeHeader(dos);
+        writeManifest(dos, Manifest.EMPTY);
+        writeValue(dos, config.root());
+        dos.flush();
+    }
+
+    public static Config read(InputStream in) throws IOException {
+        final DataInputStream dis = new DataInputStream(new BufferedInputStream(in));
+        readHeader(dis);
+        readManifest(dis);
+        return readConfig(dis);
+    }
+
+    static void write(Config config, Manifest manifest, File file) throws IOException {
+        final File tmpFile = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+        try {
+            try(DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+                writeHeader(dos);
+                writeManifest(dos, manifest);
+                writeValue(dos, config.root());
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            tmpFile.delete();
+        }
+    }
+
+    static Config readIfMatches(File file, Manifest manifest) {
+        if(!file.isFile()) return null;
+        try(DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            readHeader(dis);
+            if(!manifest.equals(readManifest(dis))) return null;
+            return readConfig(dis);
+        } catch (IOException ioe) {
+            return null;
+        }
+    }
+
+    static class Manifest {
+        private static final Manifest EMPTY = new Manifest("");
+
+        private final String locales;
+        private final List<String> paths;
+        private final List<Long> sizes;
+        private final List<Long> lastModifiedTimes;
+        private final List<Long> versions;
+
+        Manifest(String locales) {
+            this(locales, new ArrayList<String>(), new ArrayList<Long>(), new ArrayList<Long>(), new ArrayList<Long>());
+        }
+
+        void add(File file) {
+            add(file, file.length(), file.lastModified(), file.lastModified());
+        }
+
+        void add(File file, long size, long lastModified, long version) {
+            paths.add(file.getAbsolutePath());
+            sizes.add(size);
+            lastModifiedTimes.add(lastModified);
+            versions.add(version);
+        }
+
+        private Manifest(String locales, List<String> paths, List<Long> sizes, List<Long> lastModifiedTimes,
+                         List<Long> versions) {
+            this.locales = locales;
+            this.paths = paths;
+            this.sizes = sizes;
+            this.lastModifiedTimes = lastModifiedTimes;
+            this.versions = versions;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(!(o instanceof Manifest)) return false;
+            final Manifest m = (Manifest) o;
+            return locales.equals(m.locales) && paths.equals(m.paths)
+                    && sizes.equals(m.sizes) && lastModifiedTimes.equals(m.lastModifiedTimes) && versions.equals(m.versions);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(new Object[]{locales, paths, sizes, lastModifiedTimes, versions});
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    private static void readHeader(DataInputStream in) throws IOException {
+        if(in.readInt() != MAGIC) throw new IOException("Not a config snapshot");
+        final int version = in.readInt();
+        if(version != VERSION) throw new IOException("Unsupported config snapshot version: "+version);
+    }
+
+    private static void writeManifest(DataOutputStream out, Manifest manifest) throws IOException {
+        writeString(out, manifest.locales);
+        out.writeInt(manifest.paths.size());
+        for(int i = 0; i < manifest.paths.size(); i++) {
+            writeString(out, manifest.paths.get(i));
+            out.writeLong(manifest.sizes.get(i));
+            out.writeLong(manifest.lastModifiedTimes.get(i));
+            out.writeLong(manifest.versions.get(i));
+        }
+    }
+
+    private static Manifest readManifest(DataInputStream in) throws IOException {
+        final String locales = readString(in);
+        final int size = in.readInt();
+        final List<String> paths = new ArrayList<>(size);
+        final List<Long> sizes = new ArrayList<>(size);
+        final List<Long> lastModifiedTimes = new ArrayList<>(size);
+        final List<Long> versions = new ArrayList<>(size);
+        for(int i = 0; i < size; i++) {
+            paths.add(readString(in));
+            sizes.add(in.readLong());
+            lastModifiedTimes.add(in.readLong());
+            versions.add(in.readLong());
+        }
+        return new Manifest(locales, paths, sizes, lastModifiedTimes, versions);
+    }
+
+    private static Config readConfig(DataInputStream in) throws IOException {
+        final StringBuilder texts = new StringBuilder();
+        final Object root = readValue(in, new ArrayList<String>(), texts);
+        if(!(root instanceof Map)) throw new IOException("Config snapshot root must be an object");
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> map = (Map<String, Object>) root;
+        final Config config = ConfigValueFactory.fromMap(map, ORIGIN_DESCRIPTION).toConfig();
+        if(texts.length() == 0) return config;
+        // numbers written differently from their value, and lists holding one, are parsed together
+        try {
+            return ConfigFactory.parseString(texts.toString(), ConfigParseOptions.defaults()
+                    .setSyntax(ConfigSyntax.CONF).setOriginDescription(ORIGIN_DESCRIPTION)).withFallback(config);
+        } catch (ConfigException e) {
+            throw new IOException("Corrupted config snapshot", e);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, ConfigValue value) throws IOException {
+        switch (value.valueType()) {
+            case OBJECT:
+                final ConfigObject object = (ConfigObject) value;
+                out.writeByte(OBJECT);
+                out.writeInt(object.size());
+                for(Map.Entry<String, ConfigValue> entry : object.entrySet()) {
+                    writeString(out, entry.getKey());
+                    writeValue(out, entry.getValue());
+                }
+                break;
+            case LIST:
+                if(!hasTypedNumbersOnly(value)) {
+                    writeText(out, value);
+                    break;
+                }
+                final ConfigList list = (ConfigList) value;
+                out.writeByte(LIST);
+                out.writeInt(list.size());
+                for(ConfigValue element : list) {
+                    writeValue(out, element);
+                }
+                break;
+            case NUMBER:
+                if(!hasTypedNumbersOnly(value)) {
+                    writeText(out, value);
+                    break;
+                }
+                final Number number = (Number) value.unwrapped();
+                if(number instanceof Integer) {
+                    out.writeByte(INT);
+                    out.writeInt(number.intValue());
+                } else if(number instanceof Long) {
+                    out.writeByte(LONG);
+                    out.writeLong(number.longValue());
+                } else {
+                    out.writeByte(DOUBLE);
+                    out.writeDouble(number.doubleValue());
+                }
+                break;
+            case STRING:
+                out.writeByte(STRING);
+                writeString(out, (String) value.unwrapped());
+                break;
+            case BOOLEAN:
+                out.writeByte(BOOLEAN);
+                out.writeBoolean((Boolean) value.unwrapped());
+                break;
+            case NULL:
+                out.writeByte(NULL);
+                break;
+            default:
+                throw new IllegalStateException("Unsupported value type: "+value.valueType());
+        }
+    }
+
+    private static void writeText(DataOutputStream out, ConfigValue value) throws IOException {
+        out.writeByte(TEXT);
+        final StringBuilder text = new StringBuilder();
+        appendText(text, value);
+        writeString(out, text.toString());
+    }
+
+    /**
+     * @return true when every number in value reads the same as a number built from its value
+     */
+    private static boolean hasTypedNumbersOnly(ConfigValue value) {
+        switch (value.valueType()) {
+            case OBJECT:
+                for(ConfigValue child : ((ConfigObject) value).values()) {
+                    if(!hasTypedNumbersOnly(child)) return false;
+                }
+                return true;
+            case LIST:
+                for(ConfigValue element : (ConfigList) value) {
+                    if(!hasTypedNumbersOnly(element)) return false;
+                }
+                return true;
+            case NUMBER:
+                return numberText(value).equals(numberText(ConfigValueFactory.fromAnyRef(value.unwrapped())));
+            default:
+                return true;
+        }
+    }
+
+    private static String numberText(ConfigValue number) {
+        return number.atKey("n").getString("n");
+    }
+
+    /**
+     * Renders value as concise HOCON. Numbers keep their original text, which render() drops.
+     */
+    private static void appendText(StringBuilder text, ConfigValue value) {
+        switch (value.valueType()) {
+            case OBJECT:
+                text.append('{');
+                String separator = "";
+                for(Map.Entry<String, ConfigValue> entry : ((ConfigObject) value).entrySet()) {
+                    text.append(separator).append(quote(entry.getKey())).append(':');
+                    appendText(text, entry.getValue());
+                    separator = ",";
+                }
+                text.append('}');
+                break;
+            case LIST:
+                text.append('[');
+                for(int i = 0; i < ((ConfigList) value).size(); i++) {
+                    if(i > 0) text.append(',');
+                    appendText(text, ((ConfigList) value).get(i));
+                }
+                text.append(']');
+                break;
+            case NUMBER:
+                text.append(numberText(value));
+                break;
+            default:
+                text.append(value.render(ConfigRenderOptions.concise()));
+        }
+    }
+
+    private static String quote(String s) {
+        return ConfigValueFactory.fromAnyRef(s).render(ConfigRenderOptions.concise());
+    }
+
+    /**
+     * Values stored as text are appended to texts as assignments to their path, and left out of the map.
+     * Lists hold no values stored as text, their elements are read with a null path.
+     */
+    private static Object readValue(DataInputStream in, List<String> path, StringBuilder texts) throws IOException {
+        final byte tag = in.readByte();
+        switch (tag) {
+            case OBJECT:
+                final int objectSize = in.readInt();
+                final Map<String, Object> object = new HashMap<>(objectSize * 4 / 3 + 1);
+                for(int i = 0; i < objectSize; i++) {
+                    final String key = readString(in);
+                    if(path != null) path.add(key);
+                    final Object value = readValue(in, path, texts);
+                    if(value != TEXT_VALUE) object.put(key, value);
+                    if(path != null) path.remove(path.size() - 1);
+                }
+                return object;
+            case LIST:
+                final int listSize = in.readInt();
+                final List<Object> list = new ArrayList<>(listSize);
+                for(int i = 0; i < listSize; i++) {
+                    list.add(readValue(in, null, texts));
+                }
+                return list;
+            case TEXT:
+                if(path == null || path.isEmpty()) throw new IOException("Corrupted config snapshot, misplaced text value");
+                texts.append(ConfigUtil.joinPath(path)).append(" = ").append(readString(in)).append('\n');
+                return TEXT_VALUE;
+            case STRING:
+                return readString(in);
+            case BOOLEAN:
+                return in.readBoolean();
+            case NULL:
+                return null;
+            case INT:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            default:
+                throw new IOException("Corrupted config snapshot, unknown tag: "+tag);
+        }
+    }
+
+    private static final Object TEXT_VALUE = new Object();
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        final byte[] bytes = s.getBytes(UTF8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, UTF8);
+    }
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.util.List;
+
+/**
+ * A tree of configuration files addressed by '/' separated paths relative to its root,
+ * "" being the root itself. ConfigBuilder applies the same hierarchy and locale overlay
+ * rules to a source as to a RootDir.
+ */
+public abstract class ConfigSource implements Closeable {
+
+    public static ConfigSource fromDirectory(File dir) {
+        if(!dir.isDirectory()) throw new IllegalArgumentException("Dir must be a directory");
+        return new PathConfigSource(dir.getAbsoluteFile().toPath(), dir.getAbsolutePath(), null);
+    }
+
+    public static ConfigSource fromArchive(File archive) {
+        if(!archive.isFile()) throw new IllegalArgumentException("Archive must be a file");
+        try {
+            final FileSystem fileSystem = FileSystems.newFileSystem(archive.toPath(), (ClassLoader) null);
+            return new PathConfigSource(fileSystem.getPath("/"), archive.getAbsolutePath(), fileSystem);
+        } catch (IOException ioe) {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    /**
+     * @return a name identifying the source, used to build the file names reported to FileFilters,
+     * BuildListeners and parse caches
+     */
+    public abstract String description();
+
+    public abstract boolean isDirectory(String dir);
+
+    /**
+     * @return the regular files directly contained in dir
+     */
+    public abstract List<Entry> list(String dir) throws IOException;
+
+    public abstract Reader openReader(String path) throws IOException;
+
+    @Override
+    public void close() throws IOException {
+    }
+
+    public static final class Entry {
+        public Entry(String path, long size, long lastModified) {
+            this(path, size, lastModified, lastModified);
+        }
+
+        /**
+         * @param version a value that changes whenever the contents of the file change, for sources whose
+         *                modification times do not, e.g. a checksum
+         */
+        public Entry(String path, long size, long lastModified, long version) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.version = version;
+        }
+
+        public String path() {
+            return path;
+        }
+
+        public long size() {
+            return size;
+        }
+
+        public long lastModified() {
+            return lastModified;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        @Override
+        public String toString() {
+            return path;
+        }
+
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final long version;
+    }
+
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigList;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigValue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read access by path to a config that is built, in full or in parts, only when needed.
+ * It is not a Config itself, since the library only merges and resolves its own
+ * implementation: use {@link #toConfig()} to pass it to withFallback, resolveWith and the like.
+ */
+public abstract class ConfigView {
+
+    static ConfigView of(final Config config) {
+        return new ConfigView() {
+            @Override
+            public Config toConfig() {
+                return config;
+            }
+        };
+    }
+
+    ConfigView() {
+    }
+
+    /**
+     * @return the whole config, built if it was not yet
+     */
+    public abstract Config toConfig();
+
+    /**
+     * @return a config holding at least the given path
+     */
+    Config configFor(String path) {
+        return toConfig();
+    }
+
+    public boolean hasPath(String path) {
+        return configFor(path).hasPath(path);
+    }
+
+    public boolean getBoolean(String path) {
+        return configFor(path).getBoolean(path);
+    }
+
+    public Number getNumber(String path) {
+        return configFor(path).getNumber(path);
+    }
+
+    public int getInt(String path) {
+        return configFor(path).getInt(path);
+    }
+
+    public long getLong(String path) {
+        return configFor(path).getLong(path);
+    }
+
+    public double getDouble(String path) {
+        return configFor(path).getDouble(path);
+    }
+
+    public String getString(String path) {
+        return configFor(path).getString(path);
+    }
+
+    public ConfigObject getObject(String path) {
+        return configFor(path).getObject(path);
+    }
+
+    public Config getConfig(String path) {
+        return configFor(path).getConfig(path);
+    }
+
+    public Object getAnyRef(String path) {
+        return configFor(path).getAnyRef(path);
+    }
+
+    public ConfigValue getValue(String path) {
+        return configFor(path).getValue(path);
+    }
+
+    public Long getBytes(String path) {
+        return configFor(path).getBytes(path);
+    }
+
+    public long getDuration(String path, TimeUnit unit) {
+        return configFor(path).getDuration(path, unit);
+    }
+
+    public ConfigList getList(String path) {
+        return configFor(path).getList(path);
+    }
+
+    public List<Boolean> getBooleanList(String path) {
+        return configFor(path).getBooleanList(path);
+    }
+
+    public List<Number> getNumberList(String path) {
+        return configFor(path).getNumberList(path);
+    }
+
+    public List<Integer> getIntList(String path) {
+        return configFor(path).getIntList(path);
+    }
+
+    public List<Long> getLongList(String path) {
+        return configFor(path).getLongList(path);
+    }
+
+    public List<Double> getDoubleList(String path) {
+        return configFor(path).getDoubleList(path);
+    }
+
+    public List<String> getStringList(String path) {
+        return configFor(path).getStringList(path);
+    }
+
+    public List<? extends ConfigObject> getObjectList(String path) {
+        return configFor(path).getObjectList(path);
+    }
+
+    public List<? extends Config> getConfigList(String path) {
+        return configFor(path).getConfigList(path);
+    }
+
+    public List<? extends Object> getAnyRefList(String path) {
+        return configFor(path).getAnyRefList(path);
+    }
+
+    public List<Long> getBytesList(String path) {
+        return configFor(path).getBytesList(path);
+    }
+
+    public List<Long> getDurationList(String path, TimeUnit unit) {
+        return configFor(path).getDurationList(path, unit);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof ConfigView && toConfig().equals(((ConfigView) other).toConfig()));
+    }
+
+    @Override
+    public int hashCode() {
+        return toConfig().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(%s)", getClass().getSimpleName(), toConfig().root());
+    }
+
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigSyntax;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shares parsed configs between files with identical contents, and string keys and values between
+ * parsed .properties files. Share one instance across the builds that are kept in memory together.
+ * Strings of .conf and .json files are not shared, the library builds their values itself.
+ * <p>
+ * Origins are not preserved: values read from a duplicate file report the file that was parsed
+ * first, since the config library offers no way to give parsed values another origin. Leave the
+ * deduplicator out when error messages must name the exact file.
+ */
+public class ContentDeduplicator {
+
+    Config parse(ConfigBuilder.ScannedFile file) {
+        final String text = read(file);
+        final ConfigSyntax syntax = file.syntax();
+        // includes are resolved relative to the including file, so equal text can mean different configs
+        if(syntax == ConfigSyntax.CONF && text.contains("include")) return file.parse();
+        final ContentKey key = new ContentKey(syntax, digest(text));
+        final Config parsed = contents.get(key);
+        if(parsed != null) {
+            countDuplicate(file);
+            return parsed;
+        }
+        final Config config = file.parse(text, this);
+        final Config previous = contents.putIfAbsent(key, config);
+        if(previous != null) {
+            countDuplicate(file);
+            return previous;
+        }
+        return config;
+    }
+
+    String intern(String s) {
+        final String previous = strings.putIfAbsent(s, s);
+        if(previous == null) return s;
+        if(previous != s) {
+            internedStrings.incrementAndGet();
+            savedStringBytes.addAndGet(STRING_OVERHEAD + 2L * s.length());
+        }
+        return previous;
+    }
+
+    public void clear() {
+        contents.clear();
+        strings.clear();
+    }
+
+    public long duplicateFiles() {
+        return duplicateFiles.get();
+    }
+
+    /**
+     * @return the size on disk of the files that were not parsed again
+     */
+    public long duplicateFileSize() {
+        return duplicateFileSize.get();
+    }
+
+    public long internedStrings() {
+        return internedStrings.get();
+    }
+
+    /**
+     * @return an estimate of the heap no longer taken by duplicate strings
+     */
+    public long savedStringBytes() {
+        return savedStringBytes.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ContentDeduplicator [unique files: %d, duplicate files: %d (%d bytes on disk), " +
+                        "unique strings: %d, interned strings: %d (~%d bytes)]",
+                contents.size(), duplicateFiles(), duplicateFileSize(),
+                strings.size(), internedStrings(), savedStringBytes());
+    }
+
+    private void countDuplicate(ConfigBuilder.ScannedFile file) {
+        duplicateFiles.incrementAndGet();
+        duplicateFileSize.addAndGet(file.size());
+    }
+
+    private static String read(ConfigBuilder.ScannedFile file) {
+        final StringBuilder text = new StringBuilder((int) Math.min(file.size(), Integer.MAX_VALUE));
+        try(Reader reader = file.openReader()) {
+            final char[] buffer = new char[8192];
+            for(int n = reader.read(buffer); n > -1; n = reader.read(buffer)) {
+                text.append(buffer, 0, n);
+            }
+        } catch (IOException ioe) {
+            throw new RuntimeException(ioe);
+        }
+        return text.toString();
+    }
+
+    private static byte[] digest(String text) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException(nsae);
+        }
+    }
+
+    private static final class ContentKey {
+        private ContentKey(ConfigSyntax syntax, byte[] digest) {
+            this.syntax = syntax;
+            this.digest = digest;
+            this.hashCode = 31 * syntax.hashCode() + Arrays.hashCode(digest);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(!(o instanceof ContentKey)) return false;
+            final ContentKey other = (ContentKey) o;
+            return syntax == other.syntax && Arrays.equals(digest, other.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        private final ConfigSyntax syntax;
+        private final byte[] digest;
+        private final int hashCode;
+    }
+
+    // object header, hash and value array reference plus the array header, as on a 64-bit JVM
+    private static final long STRING_OVERHEAD = 40;
+
+    private final ConcurrentMap<ContentKey, Config> contents = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<>();
+
+    private final AtomicLong duplicateFiles = new AtomicLong();
+
+    private final AtomicLong duplicateFileSize = new AtomicLong();
+
+    private final AtomicLong internedStrings = new AtomicLong();
+
+    private final AtomicLong savedStringBytes = new AtomicLong();
+
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import java.util.Locale;
+
+final class FileNameClassifier {
+
+    static final class FileName {
+        final String name;
+        final String baseName;
+        final String language;
+        final String country;
+
+        private FileName(String name, String baseName, String language, String country) {
+            this.name = name;
+            this.baseName = baseName;
+            this.language = language;
+            this.country = country;
+        }
+
+        boolean isLocalized() {
+            return language != null;
+        }
+    }
+
+    static FileName parse(String fileName) {
+        final int dotIndex = fileName.lastIndexOf('.');
+        final String name = dotIndex > -1 ? fileName.substring(0, dotIndex) : fileName;
+        final int len = name.length();
+        if(len >= 6 && name.charAt(len - 6) == '_' && isLower(name, len - 5) && isLower(name, len - 4)
+                && name.charAt(len - 3) == '_' && isUpper(name, len - 2) && isUpper(name, len - 1)) {
+            return new FileName(name, name.substring(0, len - 6), name.substring(len - 5, len - 3), name.substring(len - 2));
+        }
+        if(len >= 3 && name.charAt(len - 3) == '_' && isLower(name, len - 2) && isLower(name, len - 1)) {
+            return new FileName(name, name.substring(0, len - 3), name.substring(len - 2), null);
+        }
+        return new FileName(name, name, null, null);
+    }
+
+    FileNameClassifier(Locale locale, Locale defaultLocale) {
+        final boolean hasLocale = locale != null && !locale.equals(defaultLocale);
+        this.currentSuffix_2 = hasLocale && !locale.getCountry().isEmpty() ? "_" + locale.getLanguage() + "_" + locale.getCountry() : null;
+        this.currentSuffix_1 = hasLocale ? "_" + locale.getLanguage() : null;
+        this.defaultSuffix_2 = !defaultLocale.getCountry().isEmpty() ? "_" + defaultLocale.getLanguage() + "_" + defaultLocale.getCountry() : null;
+        this.defaultSuffix_1 = "_" + defaultLocale.getLanguage();
+    }
+
+    String currentLocaleKey_2(FileName fileName) {
+        return key(fileName, currentSuffix_2);
+    }
+
+    String currentLocaleKey_1(FileName fileName) {
+        return key(fileName, currentSuffix_1);
+    }
+
+    String defaultLocaleKey_2(FileName fileName) {
+        return key(fileName, defaultSuffix_2);
+    }
+
+    String defaultLocaleKey_1(FileName fileName) {
+        return key(fileName, defaultSuffix_1);
+    }
+
+    String defaultKey(FileName fileName) {
+        return fileName.isLocalized() ? null : fileName.name;
+    }
+
+    private static String key(FileName fileName, String suffix) {
+        if(suffix == null || !fileName.name.endsWith(suffix)) return null;
+        if(fileName.isLocalized() && fileName.name.length() - fileName.baseName.length() == suffix.length()) {
+            return fileName.baseName;
+        }
+        return fileName.name.substring(0, fileName.name.length() - suffix.length());
+    }
+
+    private static boolean isLower(String s, int index) {
+        final char c = s.charAt(index);
+        return c >= 'a' && c <= 'z';
+    }
+
+    private static boolean isUpper(String s, int index) {
+        final char c = s.charAt(index);
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private final String currentSuffix_2;
+
+    private final String currentSuffix_1;
+
+    private final String defaultSuffix_2;
+
+    private final String defaultSuffix_1;
+
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigUtil;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueFactory;
+import com.typesafe.config.ConfigValueType;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A locale config reading the paths its locale files set from its own overlay and every other
+ * path from the default locale config shared by all locales, so that a locale costs memory in
+ * proportion to what it translates. The overlay holds only the locale layers of a key, unless they
+ * replace or reset an object of the default config, in which case it holds the key merged in full.
+ * The whole config is built again on each call to toConfig, it is never kept.
+ */
+class LayeredConfig extends ConfigView {
+
+    LayeredConfig(Config overlay, Set<String> keys, Set<String> mergedKeys, Base base) {
+        this.overlay = overlay;
+        this.base = base;
+        addKeys(keys, this.keys);
+        addKeys(mergedKeys, this.mergedKeys);
+    }
+
+    /**
+     * @return true when reading locale before fallback path by path gives the same values as
+     * locale.withFallback(fallback), false when locale hides values or objects of fallback as a whole
+     */
+    static boolean overlays(ConfigValue locale, ConfigValue fallback) {
+        if(fallback == null) return true;
+        if(locale.valueType() == ConfigValueType.NULL) return false;
+        if(locale.valueType() != ConfigValueType.OBJECT) return fallback.valueType() != ConfigValueType.OBJECT;
+        if(fallback.valueType() != ConfigValueType.OBJECT) return false;
+        final ConfigObject localeObject = (ConfigObject) locale;
+        // an object reset with "x = null, x { ... }" ignores its fallbacks, which only merging shows
+        if(!localeObject.withFallback(PROBE).containsKey(PROBE_KEY)) return false;
+        final ConfigObject fallbackObject = (ConfigObject) fallback;
+        for(Map.Entry<String, ConfigValue> entry : localeObject.entrySet()) {
+            if(!overlays(entry.getValue(), fallbackObject.get(entry.getKey()))) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Config toConfig() {
+        final Config base = this.base.get();
+        Config config = base;
+        for(String key : mergedKeys) {
+            config = config.withValue(key, overlay.getValue(key));
+        }
+        for(String key : keys) {
+            final ConfigObject value = overlay.getObject(key);
+            config = config.withValue(key, base.hasPath(key) ? value.withFallback(base.getValue(key)) : value);
+        }
+        return config;
+    }
+
+    @Override
+    Config configFor(String path) {
+        if(keys.isEmpty() && mergedKeys.isEmpty()) return base.get();
+        final List<String> elements = ConfigUtil.splitPath(path);
+        for(int i = 1; i <= elements.size(); i++) {
+            final String prefix = ConfigUtil.joinPath(elements.subList(0, i));
+            if(mergedKeys.contains(prefix)) return overlay;
+            if(keys.contains(prefix)) return layeredConfigFor(path);
+        }
+        return parents.contains(ConfigUtil.joinPath(elements)) ? toConfig() : base.get();
+    }
+
+    private Config layeredConfigFor(String path) {
+        if(!overlay.hasPath(path)) return base.get();
+        if(overlay.getValue(path).valueType() != ConfigValueType.OBJECT) return overlay;
+        final Config base = this.base.get();
+        if(!base.hasPath(path)) return overlay;
+        return overlay.withOnlyPath(path).withFallback(base.withOnlyPath(path));
+    }
+
+    private void addKeys(Set<String> keys, Set<String> normalizedKeys) {
+        for(String key : keys) {
+            final List<String> elements = ConfigUtil.splitPath(key);
+            normalizedKeys.add(ConfigUtil.joinPath(elements));
+            for(int i = 1; i < elements.size(); i++) {
+                this.parents.add(ConfigUtil.joinPath(elements.subList(0, i)));
+            }
+        }
+    }
+
+    Config overlay() {
+        return overlay;
+    }
+
+    Config base() {
+        return base.get();
+    }
+
+    /**
+     * The default locale config, resolved once when a locale first reads from it.
+     */
+    static final class Base {
+        Base(ConfigBuilder builder, Config unresolved) {
+            this.builder = builder;
+            this.unresolved = unresolved;
+        }
+
+        Config get() {
+            Config config = resolved;
+            if(config == null) {
+                synchronized (this) {
+                    if(resolved == null) resolved = builder.resolve(unresolved);
+                    config = resolved;
+                }
+            }
+            return config;
+        }
+
+        private final ConfigBuilder builder;
+        private final Config unresolved;
+        private volatile Config resolved;
+    }
+
+    private final Config overlay;
+
+    private final Base base;
+
+    private final Set<String> keys = new HashSet<>();
+
+    private final Set<String> mergedKeys = new HashSet<>();
+
+    private final Set<String> parents = new HashSet<>();
+
+    private static final String PROBE_KEY = "i18ncfg-probe";
+
+    private static final ConfigObject PROBE = ConfigValueFactory.fromMap(Collections.singletonMap(PROBE_KEY, true));
+
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigObject;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+class LazyConfig extends ConfigView {
+
+    LazyConfig(ConfigBuilder builder, Config rootConfig, Map<String, ConfigBuilder.FileSequences> fileSequencesMap) {
+        this.builder = builder;
+        this.rootConfig = rootConfig;
+        this.fileSequencesMap = fileSequencesMap;
+        for(String key : fileSequencesMap.keySet()) {
+            final String group = ScopedResolver.groupOf(key);
+            List<String> keys = groups.get(group);
+            if(keys == null) {
+                keys = new ArrayList<>(1);
+                groups.put(group, keys);
+            }
+            keys.add(key);
+        }
+        this.resolver = new ScopedResolver(builder, rootConfig, new ScopedResolver.GroupLoader() {
+            @Override
+            public Map<String, ConfigObject> load(String group) {
+                final List<String> keys = groups.get(group);
+                if(keys == null) return null;
+                final Map<String, ConfigObject> values = new LinkedHashMap<>();
+                for(String key : keys) {
+                    values.put(key, LazyConfig.this.builder.mergeFileSequences(LazyConfig.this.fileSequencesMap.get(key), null).root());
+                }
+                return values;
+            }
+        });
+    }
+
+    @Override
+    public Config toConfig() {
+        FutureTask<Config> task = full.get();
+        if(task == null) {
+            final FutureTask<Config> newTask = new FutureTask<>(new Callable<Config>() {
+                @Override
+                public Config call() {
+                    return builder.resolve(builder.buildConfig(rootConfig, fileSequencesMap));
+                }
+            });
+            task = full.compareAndSet(null, newTask) ? newTask : full.get();
+            task.run();
+        }
+        try {
+            return get(task);
+        } catch (RuntimeException re) {
+            full.compareAndSet(task, null);
+            throw re;
+        }
+    }
+
+    @Override
+    Config configFor(String path) {
+        final String group = ScopedResolver.groupOf(path);
+        if(!groups.containsKey(group)) return rootConfig;
+        final FutureTask<Config> fullTask = full.get();
+        if(fullTask != null && fullTask.isDone()) return toConfig();
+        return memoize(group, new Callable<Config>() {
+            @Override
+            public Config call() {
+                return resolver.resolve(Collections.singleton(group));
+            }
+        });
+    }
+
+    private Config memoize(String group, Callable<Config> loader) {
+        FutureTask<Config> task = loaded.get(group);
+        if(task == null) {
+            final FutureTask<Config> newTask = new FutureTask<>(loader);
+            task = loaded.putIfAbsent(group, newTask);
+            if(task == null) {
+                task = newTask;
+                task.run();
+            }
+        }
+        try {
+            return get(task);
+        } catch (RuntimeException re) {
+            loaded.remove(group, task);
+            throw re;
+        }
+    }
+
+    private static Config get(FutureTask<Config> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ie);
+        } catch (ExecutionException ee) {
+            final Throwable cause = ee.getCause();
+            if(cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if(cause instanceof Error) throw (Error) cause;
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private final ConfigBuilder builder;
+
+    private final Config rootConfig;
+
+    private final Map<String, ConfigBuilder.FileSequences> fileSequencesMap;
+
+    private final Map<String, List<String>> groups = new HashMap<>();
+
+    private final ScopedResolver resolver;
+
+    private final ConcurrentMap<String, FutureTask<Config>> loaded = new ConcurrentHashMap<>();
+
+    private final AtomicReference<FutureTask<Config>> full = new AtomicReference<>();
+
+}
@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Holds built per-locale configs, keeping the ones not read for maxIdle as deflated snapshots
+ * that are inflated again on the next read. Configs are compressed only by {@link #demoteIdle()},
+ * called by the application or scheduled with {@link #scheduleDemotion}, never by reads or puts.
+ * A config is compressed once and its snapshot kept while it is hot, so reads and puts drop the
+ * idle live configs that already have one. A null locale stands for the default locale.
+ */
+public class LocaleConfigStore {
+
+    public LocaleConfigStore(long maxIdle, TimeUnit unit) {
+        if(maxIdle <= 0) throw new IllegalArgumentException("MaxIdle must be positive");
+        this.maxIdleNanos = unit.toNanos(maxIdle);
+    }
+
+    public void put(Locale locale, Config config) {
+        if(config == null || !config.isResolved()) throw new IllegalArgumentException("Config must be resolved");
+        final long now = System.nanoTime();
+        synchronized (this) {
+            entries.put(locale, new Entry(config, now));
+            dropIdle(now);
+        }
+    }
+
+    public void putAll(Map<Locale, Config> configs) {
+        for(Map.Entry<Locale, Config> entry : configs.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * @return the config of the locale, inflated if it was cold, null if none was put
+     */
+    public Config get(Locale locale) {
+        final long now = System.nanoTime();
+        final Entry entry;
+        Config config;
+        final byte[] compressed;
+        synchronized (this) {
+            entry = entries.get(locale);
+            if(entry == null) return null;
+            entry.accessCount++;
+            entry.lastAccess = now;
+            config = entry.config;
+            compressed = entry.compressed;
+        }
+        if(config == null) {
+            final Config decompressed = decompress(compressed);
+            synchronized (this) {
+                decompressionCount++;
+                if(entry.config == null) entry.config = decompressed;
+                config = entry.config;
+            }
+        }
+        synchronized (this) {
+            dropIdle(now);
+        }
+        return config;
+    }
+
+    public synchronized boolean remove(Locale locale) {
+        return entries.remove(locale) != null;
+    }
+
+    public void demoteIdle() {
+        demoteIdle(System.nanoTime());
+    }
+
+    /**
+     * Runs {@link #demoteIdle()} on executor every maxIdle, until the returned future is cancelled.
+     */
+    public ScheduledFuture<?> scheduleDemotion(ScheduledExecutorService executor) {
+        return executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                demoteIdle();
+            }
+        }, maxIdleNanos, maxIdleNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void demoteIdle(long now) {
+        final List<Entry> idle = new ArrayList<>();
+        synchronized (this) {
+            dropIdle(now);
+            for(Entry entry : entries.values()) {
+                if(entry.config != null && entry.compressed == null && now - entry.lastAccess > maxIdleNanos) {
+                    idle.add(entry);
+                }
+            }
+        }
+        for(Entry entry : idle) {
+            final Config config;
+            synchronized (this) {
+                config = entry.config;
+            }
+            if(config == null) continue;
+            final byte[] compressed = compress(config);
+            synchronized (this) {
+                if(entry.config == config && now - entry.lastAccess > maxIdleNanos) {
+                    entry.compressed = compressed;
+                    entry.config = null;
+                    compressedBytes += compressed.length;
+                    demotionCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the idle live configs that have a snapshot already, which costs no compression.
+     */
+    private void dropIdle(long now) {
+        for(Entry entry : entries.values()) {
+            if(entry.config != null && entry.compressed != null && now - entry.lastAccess > maxIdleNanos) {
+                entry.config = null;
+                demotionCount++;
+            }
+        }
+    }
+
+    public long maxIdle(TimeUnit unit) {
+        return unit.convert(maxIdleNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized Set<Locale> hotLocales() {
+        final Set<Locale> hot = new LinkedHashSet<>();
+        for(Map.Entry<Locale, Entry> entry : entries.entrySet()) {
+            if(entry.getValue().config != null) hot.add(entry.getKey());
+        }
+        return hot;
+    }
+
+    public synchronized long accessCount(Locale locale) {
+        final Entry entry = entries.get(locale);
+        return entry == null ? 0 : entry.accessCount;
+    }
+
+    /**
+     * @return the reads of each locale since it was put, most read first
+     */
+    public synchronized Map<Locale, Long> accessCounts() {
+        final List<Map.Entry<Locale, Entry>> sorted = new ArrayList<>(entries.entrySet());
+        Collections.sort(sorted, new Comparator<Map.Entry<Locale, Entry>>() {
+            @Override
+            public int compare(Map.Entry<Locale, Entry> e1, Map.Entry<Locale, Entry> e2) {
+                return Long.compare(e2.getValue().accessCount, e1.getValue().accessCount);
+            }
+        });
+        final Map<Locale, Long> counts = new LinkedHashMap<>();
+        for(Map.Entry<Locale, Entry> entry : sorted) {
+            counts.put(entry.getKey(), entry.getValue().accessCount);
+        }
+        return counts;
+    }
+
+    public synchronized long demotionCount() {
+        return demotionCount;
+    }
+
+    public synchronized long decompressionCount() {
+        return decompressionCount;
+    }
+
+    /**
+     * @return the size of the snapshots compressed so far, kept for hot and cold locales alike
+     */
+    public synchronized long compressedBytes() {
+        return compressedBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("LocaleConfigStore [size: %d, hot: %d, demotions: %d, decompressions: %d, compressed bytes: %d]",
+                entries.size(), hotLocales().size(), demotionCount, decompressionCount, compressedBytes);
+    }
+
+    private static byte[] compress(Config config) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(OutputStream out = new DeflaterOutputStream(bytes)) {
+            ConfigSnapshot.write(config, out);
+        } catch (IOException ioe) {
+            throw new RuntimeException(ioe);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Config decompress(byte[] compressed) {
+        try(InputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            return ConfigSnapshot.read(in);
+        } catch (IOException ioe) {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    private static final class Entry {
+        private Config config;
+        private byte[] compressed;
+        private long lastAccess;
+        private long accessCount;
+
+        private Entry(Config config, long lastAccess) {
+            this.config = config;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private final long maxIdleNanos;
+
+    private final Map<Locale, Entry> entries = new HashMap<>();
+
+    private long demotionCount = 0;
+
+    private long decompressionCount = 0;
+
+    private long compressedBytes = 0;
+
+}
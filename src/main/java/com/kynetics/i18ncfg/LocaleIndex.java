@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The locales that have files in a scanned configuration tree, recorded per key.
+ * Locales without files of their own build the same config as a more generic one:
+ * {@link #effectiveLocale(Locale)} maps them to it, null standing for the default locale,
+ * so that builds for them can be shared.
+ */
+public final class LocaleIndex {
+
+    static LocaleIndex of(Collection<ConfigBuilder.ScannedFile> scannedFiles) {
+        final Map<String, Set<String>> suffixes = new HashMap<>();
+        for(ConfigBuilder.ScannedFile scannedFile : scannedFiles) {
+            final FileNameClassifier.FileName fileName = scannedFile.fileName();
+            if(!fileName.isLocalized()) continue;
+            Set<String> keySuffixes = suffixes.get(fileName.baseName);
+            if(keySuffixes == null) {
+                keySuffixes = new HashSet<>();
+                suffixes.put(fileName.baseName, keySuffixes);
+            }
+            keySuffixes.add(suffix(fileName.language, fileName.country));
+        }
+        return new LocaleIndex(suffixes, Locale.getDefault());
+    }
+
+    private LocaleIndex(Map<String, Set<String>> suffixes, Locale defaultLocale) {
+        this.suffixes = suffixes;
+        this.defaultLocale = defaultLocale;
+        final Set<String> all = new HashSet<>();
+        for(Set<String> keySuffixes : suffixes.values()) {
+            all.addAll(keySuffixes);
+        }
+        this.allSuffixes = all;
+    }
+
+    public Set<Locale> availableLocales() {
+        return toLocales(allSuffixes);
+    }
+
+    public Set<Locale> availableLocales(String key) {
+        final Set<String> keySuffixes = suffixes.get(key);
+        return keySuffixes == null ? Collections.<Locale>emptySet() : toLocales(keySuffixes);
+    }
+
+    /**
+     * @return the most generic locale building the same config as the given one, null for the default locale
+     */
+    public Locale effectiveLocale(Locale locale) {
+        if(locale == null || locale.equals(defaultLocale)) return null;
+        final String language = locale.getLanguage();
+        final String country = locale.getCountry();
+        // file names only carry two letter codes, other locales are left alone
+        if(language.length() != 2 || !(country.isEmpty() || country.length() == 2)) return locale;
+        if(!country.isEmpty() && allSuffixes.contains(suffix(language, country))) {
+            return new Locale(language, country);
+        }
+        final Locale languageLocale = new Locale(language);
+        if(languageLocale.equals(defaultLocale) || !allSuffixes.contains(suffix(language, null))) return null;
+        return languageLocale;
+    }
+
+    /**
+     * Picks the available locale best matching an Accept-Language header like "it-IT,it;q=0.9,en;q=0.8".
+     * Ranges are tried by decreasing weight, each falling back to its language as in RFC 4647 lookup.
+     * @return the effective locale of the first range with files, null for the default locale
+     */
+    public Locale negotiate(String acceptLanguage) {
+        if(acceptLanguage == null) return null;
+        final List<WeightedRange> ranges = new ArrayList<>();
+        for(String element : acceptLanguage.split(",")) {
+            final WeightedRange range = WeightedRange.parse(element, ranges.size());
+            if(range != null && range.weight > 0) ranges.add(range);
+        }
+        Collections.sort(ranges, byWeight);
+        for(WeightedRange range : ranges) {
+            if(range.tag.equals("*")) return null;
+            final Locale requested = Locale.forLanguageTag(range.tag);
+            final Locale locale = effectiveLocale(requested);
+            // a range of the default language without files of its own asks for the default locale
+            if(locale != null || requested.getLanguage().equals(defaultLocale.getLanguage())) return locale;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LocaleIndex %s", availableLocales());
+    }
+
+    private static Set<Locale> toLocales(Set<String> suffixes) {
+        final List<String> sorted = new ArrayList<>(suffixes);
+        Collections.sort(sorted);
+        final Set<Locale> locales = new LinkedHashSet<>();
+        for(String suffix : sorted) {
+            final int separator = suffix.indexOf('_');
+            locales.add(separator > -1 ? new Locale(suffix.substring(0, separator), suffix.substring(separator + 1))
+                    : new Locale(suffix));
+        }
+        return Collections.unmodifiableSet(locales);
+    }
+
+    private static String suffix(String language, String country) {
+        return country == null || country.isEmpty() ? language : language + "_" + country;
+    }
+
+    private static final class WeightedRange {
+        static WeightedRange parse(String element, int position) {
+            final String[] parts = element.split(";");
+            final String tag = parts[0].trim();
+            if(tag.isEmpty()) return null;
+            double weight = 1;
+            for(int i = 1; i < parts.length; i++) {
+                final String parameter = parts[i].trim();
+                if(parameter.startsWith("q=")) {
+                    try {
+                        weight = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException nfe) {
+                        return null;
+                    }
+                }
+            }
+            return new WeightedRange(tag, weight, position);
+        }
+
+        private WeightedRange(String tag, double weight, int position) {
+            this.tag = tag;
+            this.weight = weight;
+            this.position = position;
+        }
+
+        private final String tag;
+        private final double weight;
+        private final int position;
+    }
+
+    private static final Comparator<WeightedRange> byWeight = new Comparator<WeightedRange>() {
+        @Override
+        public int compare(WeightedRange r1, WeightedRange r2) {
+            final int byWeight = Double.compare(r2.weight, r1.weight);
+            return byWeight != 0 ? byWeight : r1.position - r2.position;
+        }
+    };
+
+    private final Map<String, Set<String>> suffixes;
+
+    private final Set<String> allSuffixes;
+
+    private final Locale defaultLocale;
+
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueType;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only file holding the same values as a {@link MessageTable}, served straight from a
+ * memory mapping: processes on a host opening the same file share one page cached copy.
+ * The file holds a hash index of the paths followed by a pool of distinct UTF-8 strings;
+ * it is replaced atomically when written again, open stores keep reading the old copy.
+ */
+public final class MappedMessageStore {
+
+    public static void write(Config config, File file) throws IOException {
+        final Map<String, String> messages = new LinkedHashMap<>();
+        for(Map.Entry<String, ConfigValue> value : config.entrySet()) {
+            final ConfigValueType type = value.getValue().valueType();
+            if(type != ConfigValueType.STRING && type != ConfigValueType.NUMBER && type != ConfigValueType.BOOLEAN) continue;
+            messages.put(value.getKey(), config.getString(value.getKey()));
+        }
+        int capacity = 2;
+        while(capacity < messages.size() * 2) capacity <<= 1;
+        final int mask = capacity - 1;
+        final int[] slots = new int[capacity * SLOT_INTS];
+        final Map<String, Integer> pool = new LinkedHashMap<>();
+        final List<byte[]> poolBytes = new ArrayList<>();
+        long offset = HEADER_BYTES + (long) capacity * SLOT_INTS * 4;
+        for(Map.Entry<String, String> message : messages.entrySet()) {
+            final int hash = spread(message.getKey().hashCode());
+            int slot = hash & mask;
+            while(slots[slot * SLOT_INTS + KEY] != 0) slot = (slot + 1) & mask;
+            slots[slot * SLOT_INTS + HASH] = hash;
+            for(int field = KEY; field <= VALUE; field++) {
+                final String s = field == KEY ? message.getKey() : message.getValue();
+                Integer stringOffset = pool.get(s);
+                if(stringOffset == null) {
+                    if(offset > Integer.MAX_VALUE) throw new IOException("Message store exceeds 2GB");
+                    stringOffset = (int) offset;
+                    final byte[] bytes = s.getBytes(UTF8);
+                    pool.put(s, stringOffset);
+                    poolBytes.add(bytes);
+                    offset += 4 + bytes.length;
+                }
+                slots[slot * SLOT_INTS + field] = stringOffset;
+            }
+        }
+        final File tmpFile = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+        try {
+            try(DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+                dos.writeInt(MAGIC);
+                dos.writeInt(VERSION);
+                dos.writeInt(messages.size());
+                dos.writeInt(capacity);
+                for(int i : slots) {
+                    dos.writeInt(i);
+                }
+                for(byte[] bytes : poolBytes) {
+                    dos.writeInt(bytes.length);
+                    dos.write(bytes);
+                }
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            tmpFile.delete();
+        }
+    }
+
+    public static MappedMessageStore open(File file) throws IOException {
+        final ByteBuffer buffer;
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if(channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) throw new IOException("Not a message store: "+file);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if(buffer.getInt(0) != MAGIC) throw new IOException("Not a message store: "+file);
+        final int version = buffer.getInt(4);
+        if(version != VERSION) throw new IOException("Unsupported message store version: "+version);
+        final int size = buffer.getInt(8);
+        final int capacity = buffer.getInt(12);
+        if(capacity < 2 || Integer.bitCount(capacity) != 1 || size >= capacity
+                || HEADER_BYTES + (long) capacity * SLOT_INTS * 4 > buffer.capacity()) {
+            throw new IOException("Corrupted message store: "+file);
+        }
+        return new MappedMessageStore(buffer, size, capacity);
+    }
+
+    private MappedMessageStore(ByteBuffer buffer, int size, int capacity) {
+        this.buffer = buffer;
+        this.size = size;
+        this.mask = capacity - 1;
+    }
+
+    public String get(String path) {
+        final int hash = spread(path.hashCode());
+        byte[] key = null;
+        for(int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            final int position = HEADER_BYTES + slot * SLOT_INTS * 4;
+            final int keyOffset = buffer.getInt(position + KEY * 4);
+            if(keyOffset == 0) return null;
+            if(buffer.getInt(position + HASH * 4) != hash) continue;
+            if(key == null) key = path.getBytes(UTF8);
+            if(equals(keyOffset, key)) return string(buffer.getInt(position + VALUE * 4));
+        }
+    }
+
+    public boolean hasPath(String path) {
+        return get(path) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MappedMessageStore [size: %d, slots: %d, bytes: %d]", size, mask + 1, buffer.capacity());
+    }
+
+    private boolean equals(int offset, byte[] bytes) {
+        if(buffer.getInt(offset) != bytes.length) return false;
+        for(int i = 0; i < bytes.length; i++) {
+            if(buffer.get(offset + 4 + i) != bytes[i]) return false;
+        }
+        return true;
+    }
+
+    private String string(int offset) {
+        final byte[] bytes = new byte[buffer.getInt(offset)];
+        final ByteBuffer view = buffer.duplicate();
+        view.position(offset + 4);
+        view.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static final int MAGIC = 0x4931384D;
+
+    private static final int VERSION = 1;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int HEADER_BYTES = 16;
+
+    private static final int SLOT_INTS = 3;
+    private static final int HASH = 0;
+    private static final int KEY = 1;
+    private static final int VALUE = 2;
+
+    // absolute reads only, the buffer position is never touched so lookups need no locking
+    private final ByteBuffer buffer;
+
+    private final int size;
+
+    private final int mask;
+
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MemoryConfigSource extends ConfigSource {
+
+    public MemoryConfigSource() {
+        this("memory");
+    }
+
+    public MemoryConfigSource(String description) {
+        this.description = description;
+    }
+
+    public synchronized MemoryConfigSource put(String path, String text) {
+        if(path.isEmpty() || path.startsWith("/") || path.endsWith("/")) throw new IllegalArgumentException("Path must be relative file path");
+        files.put(path, new MemoryFile(text, versions.incrementAndGet()));
+        return this;
+    }
+
+    public synchronized boolean remove(String path) {
+        return files.remove(path) != null;
+    }
+
+    @Override
+    public String description() {
+        return description;
+    }
+
+    @Override
+    public synchronized boolean isDirectory(String dir) {
+        if(dir.isEmpty()) return true;
+        final String prefix = dir + '/';
+        final String next = files.ceilingKey(prefix);
+        return next != null && next.startsWith(prefix);
+    }
+
+    @Override
+    public synchronized List<Entry> list(String dir) {
+        final String prefix = dir.isEmpty() ? "" : dir + '/';
+        final List<Entry> entries = new ArrayList<>();
+        for(Map.Entry<String, MemoryFile> entry : files.tailMap(prefix).entrySet()) {
+            final String path = entry.getKey();
+            if(!path.startsWith(prefix)) break;
+            if(path.indexOf('/', prefix.length()) > -1) continue;
+            entries.add(new Entry(path, entry.getValue().size, entry.getValue().version, entry.getValue().version));
+        }
+        return entries;
+    }
+
+    @Override
+    public synchronized Reader openReader(String path) throws IOException {
+        final MemoryFile file = files.get(path);
+        if(file == null) throw new IOException("No such file: " + path);
+        return new StringReader(file.text);
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+
+    private static class MemoryFile {
+        private final String text;
+        private final long size;
+        private final long version;
+
+        private MemoryFile(String text, long version) {
+            this.text = text;
+            this.size = text.getBytes(StandardCharsets.UTF_8).length;
+            this.version = version;
+        }
+    }
+
+    private final String description;
+
+    private final TreeMap<String, MemoryFile> files = new TreeMap<>();
+
+    // versions stand in for modification times, they are unique across sources so that parse caches
+    // never confuse files of different sources with the same description
+    private static final AtomicLong versions = new AtomicLong();
+
+}
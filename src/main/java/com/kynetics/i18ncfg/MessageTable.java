@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueType;
+
+import java.util.*;
+
+/**
+ * Immutable flat view of the string, number and boolean values of a resolved config, keyed by
+ * the paths returned by Config.entrySet(). Tables compiled together share their keys, so a
+ * handle obtained from one of them is valid for all.
+ */
+public final class MessageTable {
+
+    public static final int NO_HANDLE = -1;
+
+    public static MessageTable compile(Config config) {
+        return compileAll(Collections.singletonMap(Boolean.TRUE, config)).get(Boolean.TRUE);
+    }
+
+    public static <K> Map<K, MessageTable> compileAll(Map<K, Config> configs) {
+        final Map<K, Map<String, String>> messages = new LinkedHashMap<>();
+        final Set<String> paths = new LinkedHashSet<>();
+        final Map<String, String> interned = new HashMap<>();
+        for(Map.Entry<K, Config> entry : configs.entrySet()) {
+            final Config config = entry.getValue();
+            final Map<String, String> values = new HashMap<>();
+            for(Map.Entry<String, ConfigValue> value : config.entrySet()) {
+                final ConfigValueType type = value.getValue().valueType();
+                if(type != ConfigValueType.STRING && type != ConfigValueType.NUMBER && type != ConfigValueType.BOOLEAN) continue;
+                final String path = intern(value.getKey(), interned);
+                paths.add(path);
+                values.put(path, intern(config.getString(path), interned));
+            }
+            messages.put(entry.getKey(), values);
+        }
+        final Index index = new Index(paths);
+        final Map<K, MessageTable> tables = new LinkedHashMap<>();
+        for(Map.Entry<K, Map<String, String>> entry : messages.entrySet()) {
+            final String[] values = new String[index.keys.length];
+            for(Map.Entry<String, String> value : entry.getValue().entrySet()) {
+                values[index.find(value.getKey())] = value.getValue();
+            }
+            tables.put(entry.getKey(), new MessageTable(index, values, entry.getValue().size()));
+        }
+        return tables;
+    }
+
+    private MessageTable(Index index, String[] values, int size) {
+        this.index = index;
+        this.values = values;
+        this.size = size;
+    }
+
+    public String get(String path) {
+        final int handle = index.find(path);
+        return handle == NO_HANDLE ? null : values[handle];
+    }
+
+    public boolean hasPath(String path) {
+        return get(path) != null;
+    }
+
+    /**
+     * @return a handle for the path, or NO_HANDLE when none of the tables compiled together contain it
+     */
+    public int handle(String path) {
+        return index.find(path);
+    }
+
+    public String get(int handle) {
+        return handle < 0 || handle >= values.length ? null : values[handle];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MessageTable [size: %d, slots: %d]", size, values.length);
+    }
+
+    private static String intern(String s, Map<String, String> interned) {
+        final String previous = interned.get(s);
+        if(previous != null) return previous;
+        interned.put(s, s);
+        return s;
+    }
+
+    private static final class Index {
+        private Index(Collection<String> paths) {
+            int capacity = 2;
+            while(capacity < paths.size() * 2) capacity <<= 1;
+            this.keys = new String[capacity];
+            this.hashes = new int[capacity];
+            this.mask = capacity - 1;
+            for(String path : paths) {
+                final int hash = spread(path.hashCode());
+                int slot = hash & mask;
+                while(keys[slot] != null) slot = (slot + 1) & mask;
+                keys[slot] = path;
+                hashes[slot] = hash;
+            }
+        }
+
+        private int find(String path) {
+            final int hash = spread(path.hashCode());
+            for(int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+                if(hashes[slot] == hash && keys[slot].equals(path)) return slot;
+            }
+            return NO_HANDLE;
+        }
+
+        private static int spread(int h) {
+            return h ^ (h >>> 16);
+        }
+
+        private final String[] keys;
+        private final int[] hashes;
+        private final int mask;
+    }
+
+    private final Index index;
+
+    private final String[] values;
+
+    private final int size;
+
+}
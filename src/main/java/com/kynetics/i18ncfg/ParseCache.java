@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class ParseCache {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final ParseCache shared = new ParseCache(DEFAULT_CAPACITY);
+
+    public static ParseCache shared() {
+        return shared;
+    }
+
+    public ParseCache(int capacity) {
+        if(capacity < 0) throw new IllegalArgumentException("Capacity must not be negative");
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<String, CachedConfig>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedConfig> eldest) {
+                if(size() > ParseCache.this.capacity) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Config parse(File file) {
+        final long version;
+        try {
+            version = Files.getLastModifiedTime(file.toPath()).to(TimeUnit.NANOSECONDS);
+        } catch (IOException ioe) {
+            throw new RuntimeException(ioe);
+        }
+        return parse(new ConfigBuilder.ScannedFile(new File(canonicalPath(file)), file.length(), file.lastModified(), version),
+                BuildListener.NONE, null);
+    }
+
+    Config parse(ConfigBuilder.ScannedFile file, BuildListener buildListener, ContentDeduplicator deduplicator) {
+        final String path = file.file().getPath();
+        final long lastModified = file.lastModified();
+        final long size = file.size();
+        final long version = file.version();
+        synchronized (this) {
+            final CachedConfig cached = entries.get(path);
+            if(cached != null && cached.lastModified == lastModified && cached.size == size && cached.version == version) {
+                hitCount++;
+                return cached.config;
+            }
+            missCount++;
+        }
+        final long start = System.nanoTime();
+        final Config config = deduplicator == null ? file.parse() : deduplicator.parse(file);
+        buildListener.fileParsed(file.file(), size, System.nanoTime() - start);
+        synchronized (this) {
+            entries.put(path, new CachedConfig(lastModified, size, version, config));
+        }
+        return config;
+    }
+
+    public synchronized void invalidate(File file) {
+        entries.remove(file.getAbsolutePath());
+        entries.remove(canonicalPath(file));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ParseCache [size: %d/%d, hits: %d, misses: %d, evictions: %d]",
+                entries.size(), capacity, hitCount, missCount, evictionCount);
+    }
+
+    private static String canonicalPath(File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException ioe) {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    private static class CachedConfig {
+        private final long lastModified;
+        private final long size;
+        private final long version;
+        private final Config config;
+
+        private CachedConfig(long lastModified, long size, long version, Config config) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.version = version;
+            this.config = config;
+        }
+    }
+
+    private final int capacity;
+
+    private final LinkedHashMap<String, CachedConfig> entries;
+
+    private long hitCount = 0;
+
+    private long missCount = 0;
+
+    private long evictionCount = 0;
+
+}
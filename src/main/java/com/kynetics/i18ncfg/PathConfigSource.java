@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+class PathConfigSource extends ConfigSource {
+
+    PathConfigSource(Path root, String description, Closeable owner) {
+        this.root = root;
+        this.description = description;
+        this.owner = owner;
+    }
+
+    @Override
+    public String description() {
+        return description;
+    }
+
+    @Override
+    public boolean isDirectory(String dir) {
+        return Files.isDirectory(resolve(dir));
+    }
+
+    @Override
+    public List<Entry> list(final String dir) throws IOException {
+        final List<Entry> entries = new ArrayList<>();
+        Files.walkFileTree(resolve(dir), EnumSet.of(FileVisitOption.FOLLOW_LINKS), 1, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+                if(attrs.isRegularFile()) {
+                    final String name = path.getFileName().toString();
+                    final long lastModified = attrs.lastModifiedTime().toMillis();
+                    entries.add(new Entry(dir.isEmpty() ? name : dir + '/' + name, attrs.size(), lastModified,
+                            owner == null ? attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS) : checksum(path, lastModified)));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path path, IOException ioe) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return entries;
+    }
+
+    @Override
+    public Reader openReader(String path) throws IOException {
+        return Files.newBufferedReader(resolve(path), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(owner != null) owner.close();
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+
+    /**
+     * Archives often store fixed modification times, the CRC of the entry tells edits apart.
+     */
+    private static long checksum(Path path, long lastModified) {
+        try {
+            final Object crc = Files.getAttribute(path, "zip:crc");
+            if(crc instanceof Long) return (Long) crc;
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+            // not a zip file system
+        }
+        return lastModified;
+    }
+
+    private Path resolve(String path) {
+        return path.isEmpty() ? root : root.resolve(path);
+    }
+
+    private final Path root;
+
+    private final String description;
+
+    private final Closeable owner;
+
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigValueFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Parses .properties files into the nested map the config is built from, without the path map
+ * ConfigFactory builds in between.
+ * Keys are split on dots and an object wins over a value at the same path, as in ConfigFactory.
+ */
+final class PropertiesParser {
+
+    /**
+     * @param deduplicator interns keys and values when not null
+     */
+    static Config parse(Reader reader, String originDescription, ContentDeduplicator deduplicator) {
+        final Properties properties = new Properties();
+        try {
+            properties.load(reader instanceof BufferedReader ? reader : new BufferedReader(reader, BUFFER_SIZE));
+        } catch (IOException ioe) {
+            throw new RuntimeException(ioe);
+        }
+        final Map<String, Object> root = new HashMap<>();
+        for(String key : properties.stringPropertyNames()) {
+            put(root, key, properties.getProperty(key), deduplicator);
+        }
+        return ConfigValueFactory.fromMap(root, originDescription).toConfig();
+    }
+
+    private PropertiesParser() {
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void put(Map<String, Object> root, String path, String value, ContentDeduplicator deduplicator) {
+        Map<String, Object> parent = root;
+        int start = 0;
+        for(int dot = path.indexOf('.'); dot > -1; dot = path.indexOf('.', start)) {
+            final String element = intern(path.substring(start, dot), deduplicator);
+            final Object child = parent.get(element);
+            if(child instanceof Map) {
+                parent = (Map<String, Object>) child;
+            } else {
+                final Map<String, Object> object = new HashMap<>();
+                parent.put(element, object);
+                parent = object;
+            }
+            start = dot + 1;
+        }
+        final String element = intern(path.substring(start), deduplicator);
+        if(!(parent.get(element) instanceof Map)) parent.put(element, intern(value, deduplicator));
+    }
+
+    private static String intern(String s, ContentDeduplicator deduplicator) {
+        return deduplicator == null ? s : deduplicator.intern(s);
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+}
@@ -0,0 +1,264 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigObject;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+public class ReloadingConfig implements Closeable {
+
+    private static final long DEBOUNCE_MILLIS = 50;
+
+    private static final long MISSING_DIR_RETRY_MILLIS = 1000;
+
+    ReloadingConfig(ConfigBuilder builder, Config rootConfig, List<File> dirs) {
+        this.builder = builder;
+        this.rootConfig = rootConfig;
+        this.dirs = new ArrayList<>(dirs);
+        for(int i = 0; i < this.dirs.size(); i++) {
+            dirIndexes.put(this.dirs.get(i), i);
+        }
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            rescan();
+            this.holder = new ConfigHolder(resolver.resolveAll());
+        } catch (IOException ioe) {
+            closeQuietly();
+            throw new RuntimeException(ioe);
+        } catch (RuntimeException re) {
+            closeQuietly();
+            throw re;
+        }
+        final Thread watcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                watch();
+            }
+        }, "i18ncfg-reloader");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    public ConfigHolder holder() {
+        return holder;
+    }
+
+    public Config get() {
+        return holder.get();
+    }
+
+    public RuntimeException lastFailure() {
+        return lastFailure;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        watchService.close();
+    }
+
+    private void watch() {
+        try {
+            boolean rescanPending = false;
+            while(!closed) {
+                // a deleted directory sends no event when it comes back, so keep retrying until it does
+                WatchKey watchKey = watchKeys.size() < dirs.size()
+                        ? watchService.poll(MISSING_DIR_RETRY_MILLIS, TimeUnit.MILLISECONDS)
+                        : watchService.take();
+                final Set<String> changedKeys = new HashSet<>();
+                while(watchKey != null) {
+                    rescanPending |= collectChanges(watchKey, changedKeys);
+                    watchKey = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                try {
+                    if(rescanPending) {
+                        rescan();
+                        rescanPending = false;
+                        holder.set(resolver.resolveAll());
+                    } else if(!changedKeys.isEmpty()) {
+                        for(String key : changedKeys) {
+                            final ConfigObject merged = mergeKey(key);
+                            if(merged == null) resolver.remove(key);
+                            else resolver.put(key, merged);
+                        }
+                        holder.set(resolver.resolveAll());
+                    }
+                    lastFailure = null;
+                } catch (RuntimeException re) {
+                    lastFailure = re;
+                }
+            }
+        } catch (ClosedWatchServiceException cwse) {
+            // closed
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return true when the changes cannot be applied file by file and the hierarchy must be scanned again
+     */
+    private boolean collectChanges(WatchKey watchKey, Set<String> changedKeys) {
+        boolean rescan = false;
+        final File dir = ((Path) watchKey.watchable()).toFile();
+        for(WatchEvent<?> event : watchKey.pollEvents()) {
+            if(event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                rescan = true;
+                continue;
+            }
+            final File file = new File(dir, event.context().toString());
+            if(dirIndexes.containsKey(file)) rescan = true;
+            final ConfigBuilder.ScannedFile previousFile = new ConfigBuilder.ScannedFile(file, 0, 0);
+            final ConfigBuilder.ScannedFile scannedFile = builder.scanFile(file);
+            final Set<String> keys = builder.keysOf(previousFile);
+            builder.parseCache().invalidate(file);
+            for(String key : keys) {
+                final boolean removed = removeFile(key, previousFile);
+                if(scannedFile != null) addFile(key, scannedFile);
+                if(removed || scannedFile != null) changedKeys.add(key);
+            }
+        }
+        if(!watchKey.reset()) {
+            watchKeys.remove(dir);
+            rescan = true;
+        }
+        return rescan;
+    }
+
+    /**
+     * Registers the directories that are not watched yet and scans the whole hierarchy. The new state
+     * replaces the current one only when the scan succeeds; a missing directory is a failure.
+     */
+    private void rescan() {
+        for(File dir : dirs) {
+            if(!dir.isDirectory()) throw new IllegalStateException("Config directory not found: "+dir);
+            if(!watchKeys.containsKey(dir)) {
+                try {
+                    watchKeys.put(dir, dir.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY));
+                } catch (IOException ioe) {
+                    throw new RuntimeException(ioe);
+                }
+            }
+        }
+        final Map<String, SortedSet<ConfigBuilder.ScannedFile>> newFilesByKey = new HashMap<>();
+        for(File dir : dirs) {
+            for(ConfigBuilder.ScannedFile scannedFile : builder.scanDirectory(dir)) {
+                for(String key : builder.keysOf(scannedFile)) {
+                    addFile(newFilesByKey, key, scannedFile);
+                }
+            }
+        }
+        final ScopedResolver newResolver = new ScopedResolver(builder, rootConfig, null);
+        for(String key : newFilesByKey.keySet()) {
+            newResolver.put(key, mergeKey(newFilesByKey, key));
+        }
+        filesByKey = newFilesByKey;
+        resolver = newResolver;
+    }
+
+    private ConfigObject mergeKey(String key) {
+        return mergeKey(filesByKey, key);
+    }
+
+    private ConfigObject mergeKey(Map<String, SortedSet<ConfigBuilder.ScannedFile>> filesByKey, String key) {
+        final SortedSet<ConfigBuilder.ScannedFile> files = filesByKey.get(key);
+        if(files == null || files.isEmpty()) return null;
+        return builder.mergeKey(key, new ArrayList<>(files));
+    }
+
+    private void addFile(String key, ConfigBuilder.ScannedFile scannedFile) {
+        addFile(filesByKey, key, scannedFile);
+    }
+
+    private void addFile(Map<String, SortedSet<ConfigBuilder.ScannedFile>> filesByKey, String key,
+                         ConfigBuilder.ScannedFile scannedFile) {
+        SortedSet<ConfigBuilder.ScannedFile> files = filesByKey.get(key);
+        if(files == null) {
+            files = new TreeSet<>(hierarchyOrder);
+            filesByKey.put(key, files);
+        }
+        files.add(scannedFile);
+    }
+
+    private boolean removeFile(String key, ConfigBuilder.ScannedFile scannedFile) {
+        final SortedSet<ConfigBuilder.ScannedFile> files = filesByKey.get(key);
+        if(files == null || !files.remove(scannedFile)) return false;
+        if(files.isEmpty()) filesByKey.remove(key);
+        return true;
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ioe) {
+            // ignored
+        } catch (RuntimeException re) {
+            // ignored
+        }
+    }
+
+    private final Comparator<ConfigBuilder.ScannedFile> hierarchyOrder = new Comparator<ConfigBuilder.ScannedFile>() {
+        @Override
+        public int compare(ConfigBuilder.ScannedFile f1, ConfigBuilder.ScannedFile f2) {
+            final int dirOrder = dirIndexes.get(f1.file().getParentFile()).compareTo(dirIndexes.get(f2.file().getParentFile()));
+            return dirOrder != 0 ? dirOrder : f1.file().compareTo(f2.file());
+        }
+    };
+
+    private final ConfigBuilder builder;
+
+    private final Config rootConfig;
+
+    private final List<File> dirs;
+
+    private final Map<File, Integer> dirIndexes = new HashMap<>();
+
+    private final Map<File, WatchKey> watchKeys = new HashMap<>();
+
+    private Map<String, SortedSet<ConfigBuilder.ScannedFile>> filesByKey = new HashMap<>();
+
+    private ScopedResolver resolver;
+
+    private WatchService watchService;
+
+    private ConfigHolder holder;
+
+    private volatile boolean closed = false;
+
+    private volatile RuntimeException lastFailure = null;
+
+}
@@ -0,0 +1,242 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigRenderOptions;
+import com.typesafe.config.ConfigUtil;
+import com.typesafe.config.ConfigValue;
+
+import java.util.*;
+
+/**
+ * Resolves substitutions per top level group (the first element of a key's path): only the
+ * groups reachable from the requested ones are resolved, results are memoized, and a change
+ * to a group invalidates only the groups that depend on it.
+ */
+final class ScopedResolver {
+
+    interface GroupLoader {
+        /**
+         * @return the merged values of the group keyed by path, or null when the group does not exist
+         */
+        Map<String, ConfigObject> load(String group);
+    }
+
+    ScopedResolver(ConfigBuilder builder, Config rootConfig, GroupLoader loader) {
+        this.builder = builder;
+        this.rootConfig = rootConfig;
+        this.loader = loader;
+    }
+
+    synchronized void put(String key, ConfigObject value) {
+        final String group = groupOf(key);
+        Map<String, ConfigObject> values = groups.get(group);
+        if(values == null) {
+            values = new LinkedHashMap<>();
+            groups.put(group, values);
+        }
+        values.put(key, value);
+        invalidate(group);
+    }
+
+    synchronized void remove(String key) {
+        final String group = groupOf(key);
+        final Map<String, ConfigObject> values = groups.get(group);
+        if(values == null || values.remove(key) == null) return;
+        if(values.isEmpty()) {
+            groups.remove(group);
+            removedGroups = true;
+        }
+        invalidate(group);
+    }
+
+    synchronized Config resolve(Collection<String> requestedGroups) {
+        resolveGroups(requestedGroups);
+        Config cfg = rootConfig;
+        for(String group : requestedGroups) {
+            final ConfigValue value = resolved.get(group);
+            if(value != null) cfg = cfg.withValue(ConfigUtil.joinPath(group), value);
+        }
+        return cfg;
+    }
+
+    synchronized Config resolveAll() {
+        final Set<String> changedGroups = resolveGroups(new ArrayList<>(groups.keySet()));
+        if(assembled == null || removedGroups) {
+            changedGroups.addAll(groups.keySet());
+            assembled = rootConfig;
+            removedGroups = false;
+        }
+        for(String group : changedGroups) {
+            assembled = assembled.withValue(ConfigUtil.joinPath(group), resolved.get(group));
+        }
+        return assembled;
+    }
+
+    static String groupOf(String key) {
+        return ConfigUtil.splitPath(key).get(0);
+    }
+
+    /**
+     * Collects the top level groups referenced by ${...} substitutions in the rendered value,
+     * skipping quoted strings. Over-approximating is harmless, it only widens the resolved scope.
+     */
+    static Set<String> referencedGroups(ConfigValue value) {
+        final String text = value.render(ConfigRenderOptions.concise());
+        final Set<String> references = new HashSet<>();
+        int i = 0;
+        while(i < text.length()) {
+            final char c = text.charAt(i);
+            if(c == '"') {
+                i = skipQuoted(text, i);
+            } else if(c == '$' && i + 1 < text.length() && text.charAt(i + 1) == '{') {
+                int start = i + 2;
+                if(start < text.length() && text.charAt(start) == '?') start++;
+                int end = start;
+                while(end < text.length() && text.charAt(end) != '}') {
+                    end = text.charAt(end) == '"' ? skipQuoted(text, end) : end + 1;
+                }
+                try {
+                    references.add(groupOf(text.substring(start, Math.min(end, text.length())).trim()));
+                } catch (ConfigException ce) {
+                    // not a path, nothing to depend on
+                }
+                i = end + 1;
+            } else {
+                i++;
+            }
+        }
+        return references;
+    }
+
+    private static int skipQuoted(String text, int quote) {
+        int i = quote + 1;
+        while(i < text.length() && text.charAt(i) != '"') {
+            i += text.charAt(i) == '\\' ? 2 : 1;
+        }
+        return i + 1;
+    }
+
+    private Set<String> resolveGroups(Collection<String> requestedGroups) {
+        final Set<String> visited = new HashSet<>();
+        final Set<String> scope = new LinkedHashSet<>();
+        final Set<String> unresolvedGroups = new LinkedHashSet<>();
+        final Deque<String> pending = new ArrayDeque<>();
+        for(String group : requestedGroups) {
+            if(!resolved.containsKey(group)) pending.add(group);
+        }
+        while(!pending.isEmpty()) {
+            final String group = pending.poll();
+            if(!visited.add(group) || !load(group)) continue;
+            scope.add(group);
+            if(!resolved.containsKey(group)) {
+                unresolvedGroups.add(group);
+                pending.addAll(dependenciesOf(group));
+            }
+        }
+        if(unresolvedGroups.isEmpty()) return unresolvedGroups;
+        Config partial;
+        try {
+            partial = resolvePartial(scope);
+        } catch (ConfigException.UnresolvedSubstitution us) {
+            // a reference the scan could not see, fall back to every known group
+            partial = resolvePartial(new ArrayList<>(groups.keySet()));
+        }
+        for(String group : unresolvedGroups) {
+            resolved.put(group, partial.root().get(group));
+        }
+        return unresolvedGroups;
+    }
+
+    private Config resolvePartial(Collection<String> scope) {
+        Config partial = rootConfig;
+        boolean isResolved = true;
+        for(String group : scope) {
+            final ConfigValue value = resolved.get(group);
+            if(value != null) {
+                partial = partial.withValue(ConfigUtil.joinPath(group), value);
+            } else {
+                for(Map.Entry<String, ConfigObject> entry : groups.get(group).entrySet()) {
+                    partial = partial.withValue(entry.getKey(), entry.getValue());
+                    isResolved &= entry.getValue().toConfig().isResolved();
+                }
+            }
+        }
+        return isResolved ? partial : builder.resolve(partial);
+    }
+
+    private boolean load(String group) {
+        if(groups.containsKey(group)) return true;
+        if(loader == null) return false;
+        final Map<String, ConfigObject> values = loader.load(group);
+        if(values == null || values.isEmpty()) return false;
+        groups.put(group, new LinkedHashMap<>(values));
+        return true;
+    }
+
+    private Set<String> dependenciesOf(String group) {
+        Set<String> groupDependencies = dependencies.get(group);
+        if(groupDependencies == null) {
+            groupDependencies = new HashSet<>();
+            for(ConfigObject value : groups.get(group).values()) {
+                if(!value.toConfig().isResolved()) groupDependencies.addAll(referencedGroups(value));
+            }
+            groupDependencies.remove(group);
+            dependencies.put(group, groupDependencies);
+        }
+        return groupDependencies;
+    }
+
+    private void invalidate(String group) {
+        dependencies.remove(group);
+        final Deque<String> pending = new ArrayDeque<>();
+        pending.add(group);
+        while(!pending.isEmpty()) {
+            final String current = pending.poll();
+            if(resolved.remove(current) == null && !current.equals(group)) continue;
+            for(Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+                if(entry.getValue().contains(current) && resolved.containsKey(entry.getKey())) pending.add(entry.getKey());
+            }
+        }
+    }
+
+    private final ConfigBuilder builder;
+
+    private final Config rootConfig;
+
+    private final GroupLoader loader;
+
+    private final Map<String, Map<String, ConfigObject>> groups = new LinkedHashMap<>();
+
+    private final Map<String, Set<String>> dependencies = new HashMap<>();
+
+    private final Map<String, ConfigValue> resolved = new HashMap<>();
+
+    private Config assembled = null;
+
+    private boolean removedGroups = false;
+
+}
@@ -23,6 +23,7 @@
 package com.kynetics.i18ncfg;
 
 import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -30,10 +31,21 @@ import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.io.FileFilter;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.kynetics.i18ncfg.TestFiles.newTextFileIn;
 
 public class ConfigBuilderTest {
 
@@ -134,10 +146,14 @@ public class ConfigBuilderTest {
         final File parent = tmp.newFolder("parent");
         final File child_1 = tmp.newFolder("parent", "child_1");
         final File child_1_1 = tmp.newFolder("parent", "child_1", "child_1_1");
-        Assert.assertEquals(Arrays.asList(child_1_1, child_1, parent), ConfigBuilder.fileHierarchy(child_1_1, parent));
-        Assert.assertEquals(Arrays.asList(child_1, parent), ConfigBuilder.fileHierarchy(child_1, parent));
-        Assert.assertEquals(Arrays.asList(parent), ConfigBuilder.fileHierarchy(parent, parent));
-        Assert.assertEquals(Arrays.asList(parent), ConfigBuilder.fileHierarchy(new File(parent,"."), parent));
+        final File canonicalParent = parent.getCanonicalFile();
+        final File canonicalChild_1 = child_1.getCanonicalFile();
+        final File canonicalChild_1_1 = child_1_1.getCanonicalFile();
+        Assert.assertEquals(Arrays.asList(canonicalChild_1_1, canonicalChild_1, canonicalParent), ConfigBuilder.fileHierarchy(child_1_1, parent));
+        Assert.assertEquals(Arrays.asList(canonicalChild_1, canonicalParent), ConfigBuilder.fileHierarchy(child_1, parent));
+        Assert.assertEquals(Arrays.asList(canonicalParent), ConfigBuilder.fileHierarchy(parent, parent));
+        Assert.assertEquals(Arrays.asList(canonicalParent), ConfigBuilder.fileHierarchy(new File(parent,"."), parent));
+        Assert.assertEquals(Arrays.asList(canonicalChild_1, canonicalParent), ConfigBuilder.fileHierarchy(new File(child_1_1,".."), parent));
     }
 
     @Test
@@ -224,6 +240,36 @@ public class ConfigBuilderTest {
         Assert.assertEquals(3, cfg.entrySet().size());
     }
 
+    @Test
+    public void testBuilding_object_replacing_a_value_ignores_lower_files() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        newTextFileIn(parent, "root.conf", "greeting { hello: hi, bye: bye }");
+        newTextFileIn(parent, "root_it.conf", "greeting: null\ngreeting { hello: ciao }");
+        final Locale it = new Locale.Builder().setLanguage("it").build();
+        final ConfigBuilder builder = ConfigBuilder.create().withRootDir(parent).withProfileDir(parent).withLocale(it);
+        for(Config cfg : Arrays.asList(builder.build(), builder.withParallelism(4).build(),
+                builder.buildAll(Collections.singletonList(it)).get(it))) {
+            Assert.assertEquals("ciao", cfg.getString("root.greeting.hello"));
+            Assert.assertFalse(cfg.hasPath("root.greeting.bye"));
+        }
+    }
+
+    @Test
+    public void testBuilding_keeps_origins() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File rootConf_it = newTextFileIn(parent, "root_it.conf", "a { b: 1 }");
+        final File rootConf = newTextFileIn(parent, "root.conf", "\na { o { p: 2 } }");
+        final Locale it = new Locale.Builder().setLanguage("it").build();
+        final Config cfg = ConfigBuilder.create().withRootDir(parent).withProfileDir(parent).withLocale(it).build();
+        Assert.assertTrue(cfg.getValue("root.a.b").origin().description().contains(rootConf_it.getName()));
+        try {
+            cfg.getInt("root.a.o");
+            Assert.fail("root.a.o is an object");
+        } catch (ConfigException.WrongType expected) {
+            Assert.assertTrue(expected.getMessage(), expected.getMessage().contains(rootConf.getName() + ": 2"));
+        }
+    }
+
     @Test
     public void testBuilding_override_locale_dominate_on_profile() throws IOException {
         final File parent = tmp.newFolder("parent");
@@ -296,6 +342,22 @@ public class ConfigBuilderTest {
     }
 
 
+    @Test
+    public void testBuilding_skips_directories_and_follows_links() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File shared = tmp.newFolder("shared");
+        tmp.newFolder("parent", "directory.conf");
+        newTextFileIn(parent, "root.conf",
+                "property1: property1 in root.conf file");
+        final File sharedConf = newTextFileIn(shared, "shared.conf",
+                "property2: property2 in shared.conf file");
+        Files.createSymbolicLink(new File(parent, "linked.conf").toPath(), sharedConf.toPath());
+        final Config cfg = ConfigBuilder.create().withRootDir(parent).withProfileDir(parent).build();
+        Assert.assertFalse(cfg.hasPath("directory"));
+        Assert.assertEquals("property2 in shared.conf file", cfg.getString("linked.property2"));
+        Assert.assertEquals(2, cfg.entrySet().size());
+    }
+
     @Test
     public void testBuilding_with_file_filter() throws IOException {
         final File parent = tmp.newFolder("parent");
@@ -321,12 +383,227 @@ public class ConfigBuilderTest {
         Assert.assertEquals(2, cfg.entrySet().size());
     }
 
-    private File newTextFileIn(File folder, String fileName, String text) throws IOException {
-        final File file = new File(folder, fileName);
-        try(FileWriter w = new FileWriter(file)) {
-            w.write(text);
+    @Test
+    public void testBuilding_in_parallel() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File child_1 = tmp.newFolder("parent", "child_1");
+        newTextFileIn(parent, "root.conf",
+                "property1: property1 in root.conf file\n"+
+                "property2: property2 in root.conf file\n"+
+                "property3: property3 in root.conf file");
+        newTextFileIn(parent, "root_it.conf",
+                "property2: property2 in root_it.conf file");
+        newTextFileIn(child_1, "root.conf",
+                "property1: property1 in root.conf file in child_1 dir");
+        newTextFileIn(child_1, "root_it_IT.conf",
+                "property3: property3 in root_it_IT.conf file in child_1 dir");
+        for(int i = 0; i < 20; i++) {
+            newTextFileIn(i % 2 == 0 ? parent : child_1, "bundle"+i+".conf",
+                    "property: property in bundle"+i+"\nref: ${root.property1}");
+        }
+        final Config sequential = ConfigBuilder.create().withRootDir(parent)
+                .withProfileDir(child_1).withLocale(getLocale_it_IT()).build();
+        final Config parallel = ConfigBuilder.create().withRootDir(parent)
+                .withProfileDir(child_1).withLocale(getLocale_it_IT()).withParallelism(4).build();
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        final Config withExecutor;
+        try {
+            withExecutor = ConfigBuilder.create().withRootDir(parent)
+                    .withProfileDir(child_1).withLocale(getLocale_it_IT()).withExecutor(executor).build();
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals("property1 in root.conf file in child_1 dir", parallel.getString("root.property1"));
+        Assert.assertEquals("property2 in root_it.conf file", parallel.getString("root.property2"));
+        Assert.assertEquals("property3 in root_it_IT.conf file in child_1 dir", parallel.getString("root.property3"));
+        Assert.assertEquals("property1 in root.conf file in child_1 dir", parallel.getString("bundle7.ref"));
+        Assert.assertEquals(sequential, parallel);
+        Assert.assertEquals(sequential, withExecutor);
+    }
+
+    @Test
+    public void testBuilding_with_build_listener() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File child_1 = tmp.newFolder("parent", "child_1");
+        final File rootConf = newTextFileIn(parent, "root.conf",
+                "property1: property1 in root.conf file");
+        newTextFileIn(parent, "root.yaml", "\"property in rejected file\"");
+        newTextFileIn(child_1, "messages.properties",
+                "greeting = hello");
+        final BuildStatistics statistics = new BuildStatistics();
+        final Config cfg = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1)
+                .withParseCache(new ParseCache(16)).withBuildListener(statistics).build();
+        Assert.assertEquals("hello", cfg.getString("messages.greeting"));
+        Assert.assertEquals(2, statistics.directories());
+        Assert.assertEquals(2, statistics.acceptedFiles());
+        Assert.assertEquals(1, statistics.rejectedFiles());
+        Assert.assertEquals(2, statistics.parsedFiles());
+        Assert.assertEquals(rootConf.length() + new File(child_1, "messages.properties").length(), statistics.parsedBytes());
+        Assert.assertEquals(2, statistics.mergedKeys());
+        Assert.assertEquals(1, statistics.resolves());
+    }
+
+    @Test
+    public void testBuilding_all_profiles_keeps_values_hiding_objects() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File child_1 = tmp.newFolder("parent", "child_1");
+        final File child_2 = tmp.newFolder("parent", "child_1", "child_2");
+        newTextFileIn(child_1, "b_it.conf", "k { n = 2 }");
+        newTextFileIn(parent, "b_it.conf", "k = x");
+        newTextFileIn(parent, "b.conf", "k { m = 1 }");
+        newTextFileIn(child_2, "c.conf", "k { n = 2 }");
+        newTextFileIn(child_1, "c.conf", "k = null\nk { o = 3 }");
+        newTextFileIn(parent, "c.conf", "k { m = 1 }");
+        newTextFileIn(child_2, "d_it_IT.conf", "k { n = 2 }");
+        newTextFileIn(child_1, "d.conf", "k = [1]");
+        newTextFileIn(parent, "d_it.conf", "k { m = 1 }");
+        final Map<File, Config> profiles = ConfigBuilder.create().withRootDir(parent).withLocale(getLocale_it_IT()).buildProfiles();
+        for(Map.Entry<File, Config> profile : profiles.entrySet()) {
+            Assert.assertEquals(profile.getKey().toString(), ConfigBuilder.create().withRootDir(parent)
+                    .withProfileDir(profile.getKey()).withLocale(getLocale_it_IT()).build(), profile.getValue());
+        }
+        final Config deepest = profiles.get(child_2.getCanonicalFile());
+        Assert.assertFalse(profiles.get(child_1.getCanonicalFile()).hasPath("b.k.m"));
+        Assert.assertFalse(deepest.hasPath("c.k.m"));
+        Assert.assertEquals(3, deepest.getInt("c.k.o"));
+        Assert.assertEquals(1, deepest.getInt("d.k.m"));
+    }
+
+    @Test
+    public void testBuilding_all_profiles() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File child_1 = tmp.newFolder("parent", "child_1");
+        final File child_2 = tmp.newFolder("parent", "child_1", "child_2");
+        final File child_3 = tmp.newFolder("parent", "child_3");
+        newTextFileIn(parent, "root.conf",
+                "property1: property1 in root.conf file\n"+
+                "property2: property2 in root.conf file\n"+
+                "nested { a: a, b: b }");
+        newTextFileIn(parent, "root_it.conf",
+                "property2: property2 in root_it.conf file");
+        newTextFileIn(parent, "messages.properties", "greeting = hello");
+        newTextFileIn(child_1, "root.conf",
+                "property1: property1 in root.conf file in child_1 dir\n"+
+                "nested { b: b1 }\n"+
+                "ref: ${messages.greeting}");
+        newTextFileIn(child_2, "root_it_IT.conf",
+                "nested { a: a2 }");
+        newTextFileIn(child_2, "messages_it.properties", "greeting = ciao");
+        newTextFileIn(child_3, "other.json", "{ \"property\": \"other\" }");
+        final ParseCache cache = new ParseCache(20);
+        final BuildStatistics statistics = new BuildStatistics();
+        final Map<File, Config> profiles = ConfigBuilder.create().withRootDir(parent).withLocale(getLocale_it_IT())
+                .withParseCache(cache).withBuildListener(statistics).buildProfiles();
+        Assert.assertEquals(Arrays.asList(parent.getCanonicalFile(), child_1.getCanonicalFile(),
+                child_2.getCanonicalFile(), child_3.getCanonicalFile()), new ArrayList<>(profiles.keySet()));
+        for(Map.Entry<File, Config> profile : profiles.entrySet()) {
+            final Config expected = ConfigBuilder.create().withRootDir(parent).withProfileDir(profile.getKey())
+                    .withLocale(getLocale_it_IT()).withParseCache(new ParseCache(20)).build();
+            Assert.assertEquals(expected, profile.getValue());
+        }
+        final Config deepest = profiles.get(child_2.getCanonicalFile());
+        Assert.assertEquals("ciao", deepest.getString("root.ref"));
+        Assert.assertEquals("a2", deepest.getString("root.nested.a"));
+        Assert.assertEquals("b1", deepest.getString("root.nested.b"));
+        Assert.assertEquals("property2 in root_it.conf file", deepest.getString("root.property2"));
+        Assert.assertFalse(deepest.hasPath("other"));
+        Assert.assertEquals(7, cache.missCount());
+        Assert.assertEquals(0, cache.hitCount());
+        Assert.assertEquals(4, statistics.directories());
+        Assert.assertEquals(4, statistics.resolves());
+    }
+
+    @Test
+    public void testBuilding_does_not_change_the_builder() throws Exception {
+        final File parent = tmp.newFolder("parent");
+        final File child_1 = tmp.newFolder("parent", "child_1");
+        final File config_1 = newTextFileIn(parent, "config_1.conf",
+                "rootDir: \".\"\nprofilePath: child_1");
+        final File config_2 = newTextFileIn(parent, "config_2.conf",
+                "rootDir: \".\"\nprofilePath: \".\"");
+        newTextFileIn(parent, "root.conf",
+                "property1: property1 in root.conf file");
+        newTextFileIn(child_1, "root.conf",
+                "property1: property1 in root.conf file in child_1 dir");
+        final ConfigBuilder builder = ConfigBuilder.create().withConfigFile(config_1);
+        final ConfigView lazy = builder.buildLazy();
+        Assert.assertEquals("property1 in root.conf file in child_1 dir", builder.build().getString("root.property1"));
+        builder.withConfigFile(config_2);
+        Assert.assertEquals("property1 in root.conf file", builder.build().getString("root.property1"));
+        Assert.assertEquals("property1 in root.conf file in child_1 dir", lazy.getString("root.property1"));
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Config> future = builder.buildAsync(executor);
+            builder.withConfigFile(config_1);
+            Assert.assertEquals("property1 in root.conf file", future.get().getString("root.property1"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBuilding_async_on_the_builder_executor() throws Exception {
+        final File parent = tmp.newFolder("parent");
+        final File child_1 = tmp.newFolder("parent", "child_1");
+        newTextFileIn(parent, "root.conf",
+                "property1: property1 in root.conf file\n"+
+                "property2: property2 in root.conf file");
+        newTextFileIn(parent, "root_it.conf",
+                "property2: property2 in root_it.conf file");
+        newTextFileIn(child_1, "root.conf",
+                "property1: property1 in root.conf file in child_1 dir");
+        final ExecutorService executor = Executors.newFixedThreadPool(1);
+        try {
+            final ConfigBuilder builder = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1)
+                    .withLocale(getLocale_it_IT()).withExecutor(executor);
+            final Config config = builder.buildAsync(executor).get(10, TimeUnit.SECONDS);
+            Assert.assertEquals("property1 in root.conf file in child_1 dir", config.getString("root.property1"));
+            Assert.assertEquals("property2 in root_it.conf file", config.getString("root.property2"));
+            final Future<Map<Locale, Config>> all = executor.submit(new Callable<Map<Locale, Config>>() {
+                @Override
+                public Map<Locale, Config> call() {
+                    return builder.buildAll(Arrays.asList(null, getLocale_it_IT()));
+                }
+            });
+            Assert.assertEquals(config, all.get(10, TimeUnit.SECONDS).get(getLocale_it_IT()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBuilding_all_locales() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File child_1 = tmp.newFolder("parent", "child_1");
+        newTextFileIn(parent, "root.conf",
+                "property1: property1 in root.conf file\n"+
+                "property2: property2 in root.conf file\n"+
+                "property3: property3 in root.conf file");
+        newTextFileIn(parent, "root_it.conf",
+                "property2: property2 in root_it.conf file");
+        newTextFileIn(child_1, "root_it_IT.conf",
+                "property3: property3 in root_it_IT.conf file in child_1 dir");
+        newTextFileIn(child_1, "root_fr.conf",
+                "property1: property1 in root_fr.conf file in child_1 dir");
+        newTextFileIn(child_1, "messages_fr.properties",
+                "greeting = bonjour");
+        final Locale fr = new Locale.Builder().setLanguage("fr").build();
+        final Locale it = new Locale.Builder().setLanguage("it").build();
+        final List<Locale> locales = Arrays.asList(getLocale_it_IT(), fr, it, Locale.getDefault());
+        final Map<Locale, Config> configs = ConfigBuilder.create().withRootDir(parent)
+                .withProfileDir(child_1).buildAll(locales);
+        Assert.assertEquals(locales, new ArrayList<>(configs.keySet()));
+        for(Locale locale : locales) {
+            final Config expected = ConfigBuilder.create().withRootDir(parent)
+                    .withProfileDir(child_1).withLocale(locale).build();
+            Assert.assertEquals(expected, configs.get(locale));
         }
-        return file;
+        Assert.assertEquals("property3 in root_it_IT.conf file in child_1 dir", configs.get(getLocale_it_IT()).getString("root.property3"));
+        Assert.assertEquals("property2 in root_it.conf file", configs.get(it).getString("root.property2"));
+        Assert.assertEquals("property3 in root.conf file", configs.get(it).getString("root.property3"));
+        Assert.assertEquals("bonjour", configs.get(fr).getString("messages.greeting"));
+        Assert.assertEquals(configs, ConfigBuilder.create().withRootDir(parent)
+                .withProfileDir(child_1).withParallelism(4).buildAll(locales));
     }
 
     private Locale getLocale_it_IT(){
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static com.kynetics.i18ncfg.TestFiles.newTextFileIn;
+
+public class ConfigCompilerTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testCompileAndLoad() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File child_1 = tmp.newFolder("parent", "child_1");
+        newTextFileIn(parent, "root.conf",
+                "property1: property1 in root.conf file\n"+
+                "property2: property2 in root.conf file\n"+
+                "version: 1.10");
+        newTextFileIn(parent, "root_it.conf",
+                "property2: property2 in root_it.conf file");
+        newTextFileIn(child_1, "root.conf",
+                "property1: property1 in root.conf file in child_1 dir\n"+
+                "ref: ${root.property2}");
+        final File output = tmp.newFolder("output");
+        final List<Locale> locales = ConfigCompiler.parseLocales(Arrays.asList("default", "it_IT"));
+        Assert.assertEquals(Arrays.asList(null, getLocale_it_IT()), locales);
+        final List<File> files = ConfigCompiler.compile(parent, Arrays.asList("", "/child_1"), locales, new File(output, "configs"));
+        Assert.assertEquals(Arrays.asList(
+                new File(output, "configs/default.i18ncfg"), new File(output, "configs/it-IT.i18ncfg"),
+                new File(output, "configs/child_1/default.i18ncfg"), new File(output, "configs/child_1/it-IT.i18ncfg")), files);
+        try(URLClassLoader classLoader = new URLClassLoader(new URL[]{output.toURI().toURL()}, null)) {
+            for(File profileDir : Arrays.asList(parent, child_1)) {
+                for(Locale locale : locales) {
+                    final Config loaded = ConfigCompiler.load(classLoader, "configs",
+                            profileDir.equals(parent) ? "" : "child_1", locale);
+                    Assert.assertEquals(ConfigBuilder.create().withRootDir(parent).withProfileDir(profileDir)
+                            .withLocale(locale).build(), loaded);
+                }
+            }
+            Assert.assertEquals("property2 in root_it.conf file",
+                    ConfigCompiler.load(classLoader, "configs", "child_1", getLocale_it_IT()).getString("root.ref"));
+            Assert.assertEquals("1.10", ConfigCompiler.load(classLoader, "configs", "", null).getString("root.version"));
+        }
+    }
+
+    @Test
+    public void testUnresolvedSubstitutionsFail() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        newTextFileIn(parent, "root.conf", "property1: ${missing}");
+        try {
+            ConfigCompiler.compile(parent, Arrays.asList(""), Arrays.asList((Locale) null), tmp.newFolder("output"));
+            Assert.fail("unresolved substitution expected");
+        } catch (IllegalStateException expected) {
+            Assert.assertTrue(expected.getMessage().contains("missing"));
+        }
+    }
+
+    private Locale getLocale_it_IT(){
+        return new Locale.Builder().setLanguage("it").setRegion("IT").build();
+    }
+
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+
+import static com.kynetics.i18ncfg.TestFiles.newTextFileIn;
+
+public class ConfigDiffTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testChangesAndRemovals() {
+        final Config older = ConfigFactory.parseString(
+                "a { b { c: 1, d: [x, y] }, e: same, \"dotted.key\": old }\n"+
+                "f { g: 1 }\n"+
+                "h: leaf\n"+
+                "removed { i: 1 }\n"+
+                "unchanged { j { k: 1 } }").resolve();
+        final Config newer = ConfigFactory.parseString(
+                "a { b { c: 2, d: [x, y] }, e: same, \"dotted.key\": new }\n"+
+                "f: now a value\n"+
+                "h { now: an object }\n"+
+                "added { l: null }\n"+
+                "unchanged { j { k: 1 } }").resolve();
+        final ConfigDiff diff = ConfigDiff.between(older, newer);
+        Assert.assertEquals(new HashSet<>(Arrays.asList("a.b.c", "a.\"dotted.key\"", "f", "h", "added")), diff.changes().keySet());
+        Assert.assertEquals(ConfigValueFactory.fromAnyRef(2), diff.changes().get("a.b.c"));
+        Assert.assertEquals(Collections.singleton("removed"), diff.removals());
+        Assert.assertEquals(1, diff.skippedObjects());
+        Assert.assertFalse(diff.isEmpty());
+        Config applied = older;
+        for(String removal : diff.removals()) {
+            applied = applied.withoutPath(removal);
+        }
+        Assert.assertEquals(newer.root(), diff.delta().withFallback(applied).root());
+    }
+
+    @Test
+    public void testEqualConfigsAreSkipped() {
+        final Config config = ConfigFactory.parseString("a { b { c: 1 } }, d: [1, 2]");
+        final ConfigDiff diff = ConfigDiff.between(config, ConfigFactory.parseString("d: [1, 2], a { b { c: 1 } }"));
+        Assert.assertTrue(diff.isEmpty());
+        Assert.assertEquals(0, diff.visitedObjects());
+        Assert.assertEquals(1, diff.skippedObjects());
+        Assert.assertTrue(diff.delta().isEmpty());
+        Assert.assertEquals(ConfigDigest.of(config).hash(), ConfigDigest.of(ConfigFactory.parseString("d: [1, 2], a { b { c: 1 } }")).hash());
+        Assert.assertNotEquals(ConfigDigest.of(config).hash(), ConfigDigest.of(ConfigFactory.parseString("d: [2, 1], a { b { c: 1 } }")).hash());
+    }
+
+    @Test
+    public void testDigestsReuseSharedObjects() {
+        final Config older = ConfigFactory.parseString("a { b { c: 1 } }, d { e: 1 }");
+        final Config newer = older.withValue("d.e", ConfigValueFactory.fromAnyRef(2));
+        final ConfigDigest olderDigest = ConfigDigest.of(older);
+        final ConfigDigest newerDigest = ConfigDigest.of(newer, olderDigest);
+        Assert.assertSame(olderDigest.root().children.get("a"), newerDigest.root().children.get("a"));
+        final ConfigDiff diff = ConfigDiff.between(olderDigest, newerDigest);
+        Assert.assertEquals(Collections.singleton("d.e"), diff.changes().keySet());
+        Assert.assertEquals(2, diff.visitedObjects());
+        Assert.assertEquals(1, diff.skippedObjects());
+    }
+
+    @Test
+    public void testDiffBetweenLocales() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        newTextFileIn(parent, "messages.conf", "greeting: hello, menu { file: File, edit: Edit }");
+        newTextFileIn(parent, "messages_it.conf", "menu { edit: Modifica }");
+        newTextFileIn(parent, "other.conf", "property: value");
+        final ConfigBuilder builder = ConfigBuilder.create().withRootDir(parent).withProfileDir(parent);
+        final Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+        try {
+            final ConfigDiff diff = ConfigDiff.between(builder.build(), builder.withLocale(Locale.ITALIAN).build());
+            Assert.assertEquals(Collections.singleton("messages.menu.edit"), diff.changes().keySet());
+            Assert.assertEquals("Modifica", diff.delta().getString("messages.menu.edit"));
+            Assert.assertTrue(diff.removals().isEmpty());
+            Assert.assertEquals(1, diff.skippedObjects());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnresolvedConfigsAreRejected() {
+        ConfigDigest.of(ConfigFactory.parseString("a: ${b}, b: 1"));
+    }
+
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+public class ConfigHolderTest {
+
+    @Test
+    public void testReloadSwapsWhenDone() throws Exception {
+        final MemoryConfigSource source = new MemoryConfigSource().put("root.conf", "property1: first");
+        final ConfigBuilder builder = ConfigBuilder.create().withSource(source);
+        final ConfigHolder holder = new ConfigHolder(builder.build());
+        final List<Config> changes = new ArrayList<>();
+        holder.addListener(new ConfigHolder.Listener() {
+            @Override
+            public void configChanged(Config config) {
+                changes.add(config);
+            }
+        });
+        final ManualExecutor executor = new ManualExecutor();
+        source.put("root.conf", "property1: second");
+        final Future<Config> reload = holder.reload(builder, executor);
+        Assert.assertFalse(reload.isDone());
+        Assert.assertEquals("first", holder.get().getString("root.property1"));
+        executor.runAll();
+        Assert.assertEquals("second", reload.get().getString("root.property1"));
+        Assert.assertSame(reload.get(), holder.get());
+        Assert.assertEquals(1, changes.size());
+    }
+
+    @Test
+    public void testStaleReloadIsDiscarded() throws Exception {
+        final MemoryConfigSource source = new MemoryConfigSource().put("root.conf", "property1: first");
+        final ConfigBuilder builder = ConfigBuilder.create().withSource(source);
+        final ConfigHolder holder = new ConfigHolder(ConfigFactory.empty());
+        final ManualExecutor older = new ManualExecutor();
+        final ManualExecutor newer = new ManualExecutor();
+        holder.reload(builder, older);
+        source.put("root.conf", "property1: second");
+        holder.reload(builder, newer);
+        newer.runAll();
+        older.runAll();
+        Assert.assertEquals("second", holder.get().getString("root.property1"));
+    }
+
+    @Test
+    public void testFailedReloadKeepsCurrentConfig() throws Exception {
+        final MemoryConfigSource source = new MemoryConfigSource().put("root.conf", "property1: first");
+        final ConfigBuilder builder = ConfigBuilder.create().withSource(source);
+        final ConfigHolder holder = new ConfigHolder(builder.build());
+        source.put("root.conf", "property1: ${missing}");
+        final ManualExecutor executor = new ManualExecutor();
+        final Future<Config> reload = holder.reload(builder, executor);
+        executor.runAll();
+        try {
+            reload.get();
+            Assert.fail("unresolved substitution expected");
+        } catch (ExecutionException ee) {
+            Assert.assertTrue(ee.getCause() instanceof ConfigException.UnresolvedSubstitution);
+        }
+        Assert.assertEquals("first", holder.get().getString("root.property1"));
+    }
+
+    private static class ManualExecutor implements Executor {
+        private final List<Runnable> commands = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            commands.add(command);
+        }
+
+        void runAll() {
+            for(Runnable command : commands) {
+                command.run();
+            }
+            commands.clear();
+        }
+    }
+
+}
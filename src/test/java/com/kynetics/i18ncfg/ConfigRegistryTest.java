@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.kynetics.i18ncfg.TestFiles.newTextFileIn;
+
+public class ConfigRegistryTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testConcurrentBuildsAreCollapsed() throws Exception {
+        final File parent = tmp.newFolder("parent");
+        newTextFileIn(parent, "root.conf", "property1: property1 in root.conf file");
+        final ConfigRegistry registry = new ConfigRegistry(4, 0, TimeUnit.MILLISECONDS);
+        final ParseCache cache = new ParseCache(10);
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<Config> configs = new ArrayList<>();
+        try {
+            final List<Future<Config>> results = new ArrayList<>();
+            for(int i = 0; i < 8; i++) {
+                results.add(executor.submit(new Callable<Config>() {
+                    @Override
+                    public Config call() throws InterruptedException {
+                        start.await();
+                        return ConfigBuilder.create().withRootDir(parent).withProfileDir(parent)
+                                .withParseCache(cache).withConfigRegistry(registry).build();
+                    }
+                }));
+            }
+            start.countDown();
+            for(Future<Config> result : results) {
+                configs.add(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        for(Config config : configs) {
+            Assert.assertSame(configs.get(0), config);
+        }
+        Assert.assertEquals("property1 in root.conf file", configs.get(0).getString("root.property1"));
+        Assert.assertEquals(1, cache.missCount());
+        Assert.assertEquals(0, cache.hitCount());
+        Assert.assertEquals(1, registry.missCount());
+        Assert.assertEquals(7, registry.hitCount());
+        Assert.assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void testEvictionBySize() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        newTextFileIn(parent, "root.conf", "property1: property1 in root.conf file");
+        newTextFileIn(parent, "root_it.conf", "property1: property1 in root_it.conf file");
+        final ConfigRegistry registry = new ConfigRegistry(1, 0, TimeUnit.MILLISECONDS);
+        final Config it = build(registry, parent, getLocale_it_IT());
+        Assert.assertEquals("property1 in root_it.conf file", it.getString("root.property1"));
+        Assert.assertSame(it, build(registry, parent, getLocale_it_IT()));
+        Assert.assertEquals("property1 in root.conf file", build(registry, parent, null).getString("root.property1"));
+        Assert.assertEquals(1, registry.evictionCount());
+        Assert.assertNotSame(it, build(registry, parent, getLocale_it_IT()));
+        Assert.assertEquals(2, registry.evictionCount());
+        Assert.assertEquals(3, registry.missCount());
+        Assert.assertEquals(1, registry.hitCount());
+        Assert.assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void testEvictionByIdleTime() throws Exception {
+        final File parent = tmp.newFolder("parent");
+        newTextFileIn(parent, "root.conf", "property1: property1 in root.conf file");
+        final ConfigRegistry registry = new ConfigRegistry(10, 20, TimeUnit.MILLISECONDS);
+        final Config config = build(registry, parent, null);
+        Thread.sleep(50);
+        Assert.assertEquals(0, registry.size());
+        Assert.assertEquals(1, registry.evictionCount());
+        Assert.assertNotSame(config, build(registry, parent, null));
+        Assert.assertEquals(2, registry.missCount());
+    }
+
+    @Test
+    public void testFailuresAreNotRegistered() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        newTextFileIn(parent, "root.conf", "property1: ${missing}");
+        final ConfigRegistry registry = new ConfigRegistry(10, 0, TimeUnit.MILLISECONDS);
+        try {
+            build(registry, parent, null);
+            Assert.fail("unresolved substitution expected");
+        } catch (ConfigException.UnresolvedSubstitution expected) {
+            // not registered
+        }
+        Assert.assertEquals(0, registry.size());
+        newTextFileIn(parent, "root.conf", "property1: property1 in root.conf file");
+        Assert.assertEquals("property1 in root.conf file", build(registry, parent, null).getString("root.property1"));
+        Assert.assertEquals(2, registry.missCount());
+    }
+
+    @Test
+    public void testEditedFilesAreRebuilt() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File root = newTextFileIn(parent, "root.conf", "property1: property1 in root.conf file");
+        final long lastModified = root.lastModified();
+        final ConfigRegistry registry = new ConfigRegistry(10, 0, TimeUnit.MILLISECONDS);
+        final Config config = build(registry, parent, null);
+        Assert.assertSame(config, build(registry, parent, null));
+        newTextFileIn(parent, "root.conf", "property1: property1 in edited root.conf file");
+        Assert.assertTrue(root.setLastModified(lastModified));
+        final Config edited = build(registry, parent, null);
+        Assert.assertEquals("property1 in edited root.conf file", edited.getString("root.property1"));
+        newTextFileIn(parent, "other.conf", "property1: property1 in other.conf file");
+        Assert.assertEquals("property1 in other.conf file", build(registry, parent, null).getString("other.property1"));
+        Assert.assertEquals(3, registry.missCount());
+        Assert.assertEquals(1, registry.hitCount());
+        Assert.assertEquals(2, registry.evictionCount());
+        Assert.assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void testEqualFileFiltersShareConfigs() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        newTextFileIn(parent, "root.conf", "property1: property1 in root.conf file");
+        final ConfigRegistry registry = new ConfigRegistry(10, 0, TimeUnit.MILLISECONDS);
+        final Config config = ConfigBuilder.create().withRootDir(parent).withProfileDir(parent)
+                .withFileFilter(new SuffixFilter(".conf")).withConfigRegistry(registry).build();
+        Assert.assertSame(config, ConfigBuilder.create().withRootDir(parent).withProfileDir(parent)
+                .withFileFilter(new SuffixFilter(".conf")).withConfigRegistry(registry).build());
+        Assert.assertEquals(1, registry.size());
+    }
+
+    private static class SuffixFilter implements FileFilter {
+        private SuffixFilter(String suffix) {
+            this.suffix = suffix;
+        }
+
+        @Override
+        public boolean accept(File file) {
+            return file.getName().endsWith(suffix);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SuffixFilter && suffix.equals(((SuffixFilter) o).suffix);
+        }
+
+        @Override
+        public int hashCode() {
+            return suffix.hashCode();
+        }
+
+        private final String suffix;
+    }
+
+    private Config build(ConfigRegistry registry, File dir, Locale locale) {
+        return ConfigBuilder.create().withRootDir(dir).withProfileDir(dir).withLocale(locale)
+                .withParseCache(new ParseCache(10)).withConfigRegistry(registry).build();
+    }
+
+    private Locale getLocale_it_IT(){
+        return new Locale.Builder().setLanguage("it").setRegion("IT").build();
+    }
+
+}
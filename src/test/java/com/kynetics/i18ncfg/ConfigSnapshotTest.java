@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static com.kynetics.i18ncfg.TestFiles.newTextFileIn;
+
+public class ConfigSnapshotTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final Config config = ConfigFactory.parseString(
+                "a { b: \"text\", c: 1, d: 10000000000, e: 1.5, f: true, g: null, h: [1, \"two\", {i: 3}] }\n" +
+                "\"quoted.key\": {}");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ConfigSnapshot.write(config, out);
+        final Config read = ConfigSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+        Assert.assertEquals(config, read);
+        Assert.assertEquals(10000000000L, read.getLong("a.d"));
+        Assert.assertTrue(read.getObject("a").containsKey("g"));
+    }
+
+    @Test
+    public void testRoundTripWithoutParsing() throws IOException {
+        final Config config = ConfigFactory.parseString(
+                "a: 1, b: 10000000000, c: 1.5, d: [1, 2.5, [true]], e: [{f: -3}]");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ConfigSnapshot.write(config, out);
+        final Config read = ConfigSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+        Assert.assertEquals(config, read);
+        for(String path : Arrays.asList("a", "b", "c")) {
+            Assert.assertEquals(config.getString(path), read.getString(path));
+        }
+        for(String path : Arrays.asList("a", "b", "c", "d", "e")) {
+            // parsed values carry a line number
+            Assert.assertEquals(-1, read.getValue(path).origin().lineNumber());
+        }
+        Assert.assertEquals(-3, read.getConfigList("e").get(0).getInt("f"));
+    }
+
+    @Test
+    public void testRoundTripKeepsNumberText() throws IOException {
+        final Config config = ConfigFactory.parseString(
+                "a: 1.10, b: 007, c: 1e3, d: 0.30000000000000004000001, e: [1.10, 007], g: [{f: 1e3}]");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ConfigSnapshot.write(config, out);
+        final Config read = ConfigSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+        Assert.assertEquals(config, read);
+        for(String path : Arrays.asList("a", "b", "c", "d")) {
+            Assert.assertEquals(config.getString(path), read.getString(path));
+        }
+        Assert.assertEquals("1.10", read.getString("a"));
+        Assert.assertEquals("007", read.getString("b"));
+        Assert.assertEquals("1e3", read.getString("c"));
+        Assert.assertEquals(Arrays.asList("1.10", "007"), read.getStringList("e"));
+        Assert.assertEquals("1e3", read.getConfigList("g").get(0).getString("f"));
+    }
+
+    @Test
+    public void testBuilding_with_snapshot() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File child_1 = tmp.newFolder("parent", "child_1");
+        final File snapshotFile = new File(tmp.getRoot(), "config.snapshot");
+        newTextFileIn(parent, "root.conf",
+                "property1: property1 in root.conf file\n"+
+                "property2: ${root.property1}");
+        final File childConf = newTextFileIn(child_1, "root.conf",
+                "property1: property1 in root.conf file in child_1 dir");
+
+        final Config built = newBuilder(parent, child_1, snapshotFile, new ParseCache(10)).build();
+        Assert.assertTrue(snapshotFile.isFile());
+
+        final ParseCache cache = new ParseCache(10);
+        final Config loaded = newBuilder(parent, child_1, snapshotFile, cache).build();
+        Assert.assertEquals(built, loaded);
+        Assert.assertEquals("property1 in root.conf file in child_1 dir", loaded.getString("root.property2"));
+        Assert.assertEquals(0, cache.missCount());
+
+        newTextFileIn(child_1, "root.conf", "property1: property1 modified in child_1 dir");
+        childConf.setLastModified(childConf.lastModified() + 2000);
+        final Config rebuilt = newBuilder(parent, child_1, snapshotFile, cache).build();
+        Assert.assertEquals("property1 modified in child_1 dir", rebuilt.getString("root.property2"));
+        Assert.assertEquals(2, cache.missCount());
+
+        newTextFileIn(child_1, "other.conf", "property: value");
+        Assert.assertEquals("value", newBuilder(parent, child_1, snapshotFile, cache).build().getString("other.property"));
+    }
+
+    @Test
+    public void testBuilding_with_corrupted_snapshot() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File snapshotFile = newTextFileIn(tmp.getRoot(), "config.snapshot", "not a snapshot");
+        newTextFileIn(parent, "root.conf", "property1: property1 in root.conf file");
+        final Config cfg = newBuilder(parent, parent, snapshotFile, new ParseCache(10)).build();
+        Assert.assertEquals("property1 in root.conf file", cfg.getString("root.property1"));
+        Assert.assertEquals(cfg, newBuilder(parent, parent, snapshotFile, new ParseCache(10)).build());
+    }
+
+    @Test
+    public void testBuilding_with_snapshot_of_an_archive_edited_with_fixed_times() throws IOException {
+        final File archive = tmp.newFile("bundle.zip");
+        final File snapshotFile = new File(tmp.getRoot(), "config.snapshot");
+        writeArchive(archive, "property1: aaa");
+        try(ConfigSource zip = ConfigSource.fromArchive(archive)) {
+            Assert.assertEquals("aaa", ConfigBuilder.create().withSource(zip).withSnapshotFile(snapshotFile)
+                    .withParseCache(new ParseCache(10)).build().getString("root.property1"));
+        }
+        writeArchive(archive, "property1: bbb");
+        try(ConfigSource zip = ConfigSource.fromArchive(archive)) {
+            Assert.assertEquals("bbb", ConfigBuilder.create().withSource(zip).withSnapshotFile(snapshotFile)
+                    .withParseCache(new ParseCache(10)).build().getString("root.property1"));
+        }
+    }
+
+    @Test
+    public void testBuilding_when_the_snapshot_cannot_be_written() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File snapshotFile = new File(new File(tmp.getRoot(), "missing"), "config.snapshot");
+        newTextFileIn(parent, "root.conf", "property1: property1 in root.conf file");
+        final Config cfg = newBuilder(parent, parent, snapshotFile, new ParseCache(10)).build();
+        Assert.assertEquals("property1 in root.conf file", cfg.getString("root.property1"));
+        Assert.assertFalse(snapshotFile.exists());
+    }
+
+    private static void writeArchive(File archive, String rootConf) throws IOException {
+        try(ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+            final ZipEntry entry = new ZipEntry("root.conf");
+            entry.setTime(0);
+            zip.putNextEntry(entry);
+            zip.write(rootConf.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+    }
+
+    private ConfigBuilder newBuilder(File rootDir, File profileDir, File snapshotFile, ParseCache cache) {
+        return ConfigBuilder.create().withRootDir(rootDir).withProfileDir(profileDir)
+                .withSnapshotFile(snapshotFile).withParseCache(cache);
+    }
+
+}
@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class ConfigSourceTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testPathHierarchy() {
+        Assert.assertEquals(Arrays.asList("a/b/c", "a/b", "a", ""), ConfigBuilder.pathHierarchy("a/b/c"));
+        Assert.assertEquals(Arrays.asList(""), ConfigBuilder.pathHierarchy(""));
+    }
+
+    @Test
+    public void testSourcesMatchRootDir() throws IOException {
+        final Map<String, String> files = tree();
+        final File parent = tmp.newFolder("parent");
+        for(Map.Entry<String, String> file : files.entrySet()) {
+            final File target = new File(parent, file.getKey());
+            target.getParentFile().mkdirs();
+            newTextFile(target, file.getValue());
+        }
+        final File archive = tmp.newFile("tree.zip");
+        try(ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("child_1/"));
+            zip.closeEntry();
+            for(Map.Entry<String, String> file : files.entrySet()) {
+                zip.putNextEntry(new ZipEntry(file.getKey()));
+                zip.write(file.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        final MemoryConfigSource memory = new MemoryConfigSource();
+        for(Map.Entry<String, String> file : files.entrySet()) {
+            memory.put(file.getKey(), file.getValue());
+        }
+        final Config expected = ConfigBuilder.create().withRootDir(parent)
+                .withProfileDir(new File(parent, "child_1")).withLocale(getLocale_it_IT()).build();
+        Assert.assertEquals("property1 in root.conf file in child_1 dir", expected.getString("root.property1"));
+        Assert.assertEquals("property2 in root_it.conf file", expected.getString("root.property2"));
+        Assert.assertEquals("property3 in root_it_IT.json file in child_1 dir", expected.getString("root.property3"));
+        Assert.assertEquals("ciao", expected.getString("messages.greeting"));
+        try(ConfigSource directory = ConfigSource.fromDirectory(parent);
+            ConfigSource zip = ConfigSource.fromArchive(archive)) {
+            for(ConfigSource source : Arrays.asList(directory, zip, memory)) {
+                final Config cfg = ConfigBuilder.create().withSource(source)
+                        .withProfilePath("/child_1/").withLocale(getLocale_it_IT()).build();
+                Assert.assertEquals(source.description(), expected.root(), cfg.root());
+            }
+            Assert.assertEquals(expected.root(), ConfigBuilder.create().withSource(zip).withProfilePath("child_1")
+                    .withLocale(getLocale_it_IT()).withParallelism(2).build().root());
+        }
+    }
+
+    @Test
+    public void testMemorySourceChanges() {
+        final MemoryConfigSource memory = new MemoryConfigSource()
+                .put("root.conf", "property1: first")
+                .put("nested/deeper/other.conf", "property: not in the hierarchy");
+        final ParseCache cache = new ParseCache(10);
+        Assert.assertEquals("first", build(memory, cache).getString("root.property1"));
+        memory.put("root.conf", "property1: second");
+        final Config cfg = build(memory, cache);
+        Assert.assertEquals("second", cfg.getString("root.property1"));
+        Assert.assertFalse(cfg.hasPath("other"));
+        Assert.assertEquals(2, cache.missCount());
+        Assert.assertTrue(memory.isDirectory("nested"));
+        Assert.assertFalse(memory.isDirectory("nest"));
+        Assert.assertTrue(memory.remove("root.conf"));
+        Assert.assertTrue(build(memory, cache).isEmpty());
+    }
+
+    @Test
+    public void testArchiveEditsWithFixedTimesAreNotCached() throws IOException {
+        final File archive = tmp.newFile("bundle.zip");
+        final ParseCache cache = new ParseCache(10);
+        writeArchive(archive, "property1: first");
+        try(ConfigSource zip = ConfigSource.fromArchive(archive)) {
+            Assert.assertEquals("first", build(zip, cache).getString("root.property1"));
+        }
+        writeArchive(archive, "property1: other");
+        try(ConfigSource zip = ConfigSource.fromArchive(archive)) {
+            Assert.assertEquals("other", build(zip, cache).getString("root.property1"));
+            Assert.assertEquals("other", build(zip, cache).getString("root.property1"));
+        }
+        Assert.assertEquals(2, cache.missCount());
+        Assert.assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void testFileFilterAndStatistics() {
+        final MemoryConfigSource memory = new MemoryConfigSource("bundles")
+                .put("root.conf", "property1: property1 in root.conf file")
+                .put("filtered.conf", "property: filtered")
+                .put("root.yaml", "property: unsupported");
+        final BuildStatistics statistics = new BuildStatistics();
+        final Config cfg = ConfigBuilder.create().withSource(memory).withBuildListener(statistics)
+                .withFileFilter(new FileFilter() {
+                    @Override
+                    public boolean accept(File file) {
+                        Assert.assertEquals("bundles", file.getParent());
+                        return !file.getName().startsWith("filtered");
+                    }
+                }).build();
+        Assert.assertEquals("property1 in root.conf file", cfg.getString("root.property1"));
+        Assert.assertFalse(cfg.hasPath("filtered"));
+        Assert.assertEquals(1, statistics.acceptedFiles());
+        Assert.assertEquals(2, statistics.rejectedFiles());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testProfilePathMustExist() {
+        ConfigBuilder.create().withSource(new MemoryConfigSource().put("a/root.conf", "x: 1"))
+                .withProfilePath("b").build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSourceIsAnAlternativeToRootDir() throws IOException {
+        ConfigBuilder.create().withRootDir(tmp.newFolder("parent")).withSource(new MemoryConfigSource());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testProfilePathMustBeRelative() {
+        ConfigBuilder.create().withProfilePath("a/../b");
+    }
+
+    private static void writeArchive(File archive, String rootConf) throws IOException {
+        try(ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+            final ZipEntry entry = new ZipEntry("root.conf");
+            entry.setTime(0);
+            zip.putNextEntry(entry);
+            zip.write(rootConf.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+    }
+
+    private static Config build(ConfigSource source, ParseCache cache) {
+        return ConfigBuilder.create().withSource(source).withParseCache(cache).build();
+    }
+
+    private static Map<String, String> tree() {
+        final Map<String, String> files = new LinkedHashMap<>();
+        files.put("root.conf", "property1: property1 in root.conf file\n" +
+                "property2: property2 in root.conf file\n" +
+                "property3: property3 in root.conf file");
+        files.put("root_it.conf", "property2: property2 in root_it.conf file");
+        files.put("messages.properties", "greeting = hello");
+        files.put("child_1/root.conf", "property1: property1 in root.conf file in child_1 dir\n" +
+                "ref: ${messages.greeting}");
+        files.put("child_1/root_it_IT.json", "{ \"property3\": \"property3 in root_it_IT.json file in child_1 dir\" }");
+        files.put("child_1/messages_it.properties", "greeting = ciao");
+        files.put("other/root.conf", "property1: not in the hierarchy");
+        return files;
+    }
+
+    private static void newTextFile(File file, String text) throws IOException {
+        try(FileWriter w = new FileWriter(file)) {
+            w.write(text);
+        }
+    }
+
+    private Locale getLocale_it_IT(){
+        return new Locale.Builder().setLanguage("it").setRegion("IT").build();
+    }
+
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import static com.kynetics.i18ncfg.TestFiles.newTextFileIn;
+
+public class ContentDeduplicatorTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testIdenticalFilesAreParsedOnce() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File child_1 = tmp.newFolder("parent", "child_1");
+        final File child_2 = tmp.newFolder("parent", "child_2");
+        newTextFileIn(parent, "root.conf", "property1: property1 in root.conf file");
+        newTextFileIn(child_1, "messages.properties", "greeting = hello\nfarewell = bye");
+        newTextFileIn(child_2, "messages.properties", "greeting = hello\nfarewell = bye");
+        newTextFileIn(tmp.newFolder("parent", "child_1", "inc"), "included.conf", "included: child_1");
+        newTextFileIn(tmp.newFolder("parent", "child_2", "inc"), "included.conf", "included: child_2");
+        newTextFileIn(child_1, "other.conf", "include \"inc/included.conf\"\nproperty: other");
+        newTextFileIn(child_2, "other.conf", "include \"inc/included.conf\"\nproperty: other");
+        final ContentDeduplicator deduplicator = new ContentDeduplicator();
+        final Map<File, Config> profiles = ConfigBuilder.create().withRootDir(parent)
+                .withParseCache(new ParseCache(0)).withDeduplicator(deduplicator).buildProfiles();
+        final Config config_1 = profiles.get(child_1.getCanonicalFile());
+        final Config config_2 = profiles.get(child_2.getCanonicalFile());
+        Assert.assertEquals(1, deduplicator.duplicateFiles());
+        Assert.assertEquals(new File(child_2, "messages.properties").length(), deduplicator.duplicateFileSize());
+        Assert.assertSame(config_1.getString("messages.greeting"), config_2.getString("messages.greeting"));
+        // origins are not preserved, the duplicate reports the file parsed first
+        Assert.assertEquals(config_1.getValue("messages.greeting").origin().description(),
+                config_2.getValue("messages.greeting").origin().description());
+        Assert.assertEquals("other", config_2.getString("other.property"));
+        Assert.assertEquals("child_1", config_1.getString("other.included"));
+        Assert.assertEquals("child_2", config_2.getString("other.included"));
+        for(Map.Entry<File, Config> profile : profiles.entrySet()) {
+            Assert.assertEquals(ConfigBuilder.create().withRootDir(parent).withProfileDir(profile.getKey()).build(),
+                    profile.getValue());
+        }
+    }
+
+    @Test
+    public void testEqualPropertiesValuesAreShared() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File child_1 = tmp.newFolder("parent", "child_1");
+        final File child_2 = tmp.newFolder("parent", "child_2");
+        newTextFileIn(child_1, "messages.properties", "greeting = hello\nfarewell = bye");
+        newTextFileIn(child_2, "messages.properties", "greeting = hello\nfarewell = ciao");
+        final ContentDeduplicator deduplicator = new ContentDeduplicator();
+        final Map<File, Config> profiles = ConfigBuilder.create().withRootDir(parent)
+                .withParseCache(new ParseCache(0)).withDeduplicator(deduplicator).buildProfiles();
+        final Config config_1 = profiles.get(child_1.getCanonicalFile());
+        final Config config_2 = profiles.get(child_2.getCanonicalFile());
+        Assert.assertEquals(0, deduplicator.duplicateFiles());
+        Assert.assertSame(config_1.getString("messages.greeting"), config_2.getString("messages.greeting"));
+        Assert.assertEquals("ciao", config_2.getString("messages.farewell"));
+        // greeting, farewell and hello
+        Assert.assertEquals(3, deduplicator.internedStrings());
+        Assert.assertTrue(deduplicator.savedStringBytes() > 0);
+    }
+
+}
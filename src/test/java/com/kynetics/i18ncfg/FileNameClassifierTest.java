@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+public class FileNameClassifierTest {
+
+    private static final List<String> FILE_NAMES = Arrays.asList(
+            "root.conf", "root_it.conf", "root_it_IT.properties", "root_en_US.json", "root_en.json",
+            "_it.conf", "it.conf", "root_IT.conf", "root_it_it.conf", "root_its.conf", "a_b_it.conf",
+            "root_es_419.conf", "root_fil.conf", "root_fil_PH.conf", "noext", "my.bundle_fr.conf", "app_db.conf");
+
+    @Test
+    public void testParse() {
+        assertFileName("root.conf", "root", "root", null, null);
+        assertFileName("root_it.conf", "root_it", "root", "it", null);
+        assertFileName("root_it_IT.conf", "root_it_IT", "root", "it", "IT");
+        assertFileName("_it_IT.conf", "_it_IT", "", "it", "IT");
+        assertFileName("root_IT.conf", "root_IT", "root_IT", null, null);
+        assertFileName("a_b_it_it.conf", "a_b_it_it", "a_b_it", "it", null);
+        assertFileName("noext", "noext", "noext", null, null);
+    }
+
+    @Test
+    public void testClassificationMatchesSuffixRules() {
+        final List<Locale> locales = Arrays.asList(null, Locale.ITALIAN, Locale.ITALY, Locale.US, Locale.ENGLISH,
+                new Locale("es", "419"), new Locale("fil"), new Locale("fil", "PH"), Locale.ROOT);
+        for(Locale defaultLocale : locales) {
+            if(defaultLocale == null) continue;
+            for(Locale locale : locales) {
+                final FileNameClassifier classifier = new FileNameClassifier(locale, defaultLocale);
+                final boolean hasLocale = locale != null && !locale.equals(defaultLocale);
+                for(String file : FILE_NAMES) {
+                    final FileNameClassifier.FileName fileName = FileNameClassifier.parse(file);
+                    final String name = fileName.name;
+                    final String message = file + " " + locale + " " + defaultLocale;
+                    Assert.assertEquals(message, name.matches(".*_[a-z]{2}(_[A-Z]{2})?"), fileName.isLocalized());
+                    Assert.assertEquals(message, hasLocale && !locale.getCountry().isEmpty() ?
+                            key(name, "_" + locale.getLanguage() + "_" + locale.getCountry()) : null,
+                            classifier.currentLocaleKey_2(fileName));
+                    Assert.assertEquals(message, hasLocale ? key(name, "_" + locale.getLanguage()) : null,
+                            classifier.currentLocaleKey_1(fileName));
+                    Assert.assertEquals(message, !defaultLocale.getCountry().isEmpty() ?
+                            key(name, "_" + defaultLocale.getLanguage() + "_" + defaultLocale.getCountry()) : null,
+                            classifier.defaultLocaleKey_2(fileName));
+                    Assert.assertEquals(message, key(name, "_" + defaultLocale.getLanguage()),
+                            classifier.defaultLocaleKey_1(fileName));
+                    Assert.assertEquals(message, fileName.isLocalized() ? null : name, classifier.defaultKey(fileName));
+                }
+            }
+        }
+    }
+
+    private static String key(String name, String suffix) {
+        return name.endsWith(suffix) ? name.substring(0, name.length() - suffix.length()) : null;
+    }
+
+    private static void assertFileName(String file, String name, String baseName, String language, String country) {
+        final FileNameClassifier.FileName fileName = FileNameClassifier.parse(file);
+        Assert.assertEquals(name, fileName.name);
+        Assert.assertEquals(baseName, fileName.baseName);
+        Assert.assertEquals(language, fileName.language);
+        Assert.assertEquals(country, fileName.country);
+    }
+
+}
@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.kynetics.i18ncfg.TestFiles.newTextFileIn;
+
+public class LayeredConfigTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Before
+    public void setUp() throws IOException {
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+        parent = tmp.newFolder("parent");
+        child_1 = tmp.newFolder("parent", "child_1");
+        newTextFileIn(parent, "messages.conf",
+                "greeting: hello\n"+
+                "farewell: goodbye\n"+
+                "menu { file: File, edit: Edit }\n"+
+                "plural { one: item, other: items }\n"+
+                "units: [m, km]");
+        newTextFileIn(parent, "messages_it.conf",
+                "greeting: ciao\n"+
+                "menu { file: File }\n"+
+                "plural: nessuno\n"+
+                "farewell: null");
+        newTextFileIn(child_1, "messages_it_IT.conf", "menu { edit: Modifica }");
+        newTextFileIn(child_1, "other.conf", "property: value");
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    public void testReadsMatchFullBuilds() {
+        final List<Locale> locales = Arrays.asList(Locale.ITALY, Locale.ITALIAN, Locale.GERMANY, null);
+        final ConfigBuilder builder = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1);
+        final Map<Locale, ConfigView> configs = builder.buildLayered(locales);
+        Assert.assertEquals(locales, new ArrayList<>(configs.keySet()));
+        for(Locale locale : locales) {
+            final Config expected = builder.withLocale(locale).build();
+            final ConfigView layered = configs.get(locale);
+            Assert.assertEquals(expected, layered.toConfig());
+            for(String path : Arrays.asList("messages", "messages.greeting", "messages.farewell", "messages.menu",
+                    "messages.menu.edit", "messages.plural", "messages.plural.one", "messages.units", "other.property", "missing")) {
+                Assert.assertEquals(path, expected.hasPath(path), layered.hasPath(path));
+                if(expected.hasPath(path)) Assert.assertEquals(path, expected.getValue(path), layered.getValue(path));
+            }
+        }
+        Assert.assertEquals("Modifica", configs.get(Locale.ITALY).getString("messages.menu.edit"));
+        Assert.assertEquals("Edit", configs.get(Locale.ITALIAN).getConfig("messages.menu").getString("edit"));
+        Assert.assertEquals(Arrays.asList("m", "km"), configs.get(Locale.ITALY).getStringList("messages.units"));
+    }
+
+    @Test
+    public void testLocalesShareTheDefaultConfig() {
+        final Map<Locale, ConfigView> configs = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1)
+                .buildLayered(Arrays.asList(Locale.ITALY, Locale.ITALIAN, Locale.GERMANY, Locale.US));
+        final LayeredConfig it_IT = (LayeredConfig) configs.get(Locale.ITALY);
+        final LayeredConfig it = (LayeredConfig) configs.get(Locale.ITALIAN);
+        Assert.assertSame(it_IT.base(), it.base());
+        Assert.assertSame(it_IT.base(), configs.get(Locale.GERMANY).toConfig());
+        Assert.assertSame(it_IT.base(), configs.get(Locale.US).toConfig());
+        Assert.assertFalse(it.overlay().hasPath("other"));
+        Assert.assertEquals(it_IT.toConfig(), it_IT.toConfig());
+    }
+
+    @Test
+    public void testOverlaysHoldOnlyTranslatedValues() throws IOException {
+        final StringBuilder bundle = new StringBuilder();
+        for(int i = 0; i < 5000; i++) {
+            bundle.append("key").append(i).append(" = value ").append(i).append('\n');
+        }
+        newTextFileIn(parent, "bundle.properties", bundle.toString());
+        newTextFileIn(parent, "bundle_it.properties", "key1 = valore 1\nkey2 = valore 2");
+        newTextFileIn(parent, "bundle_fr.properties", "key3 = valeur 3\nkey4 = valeur 4");
+        newTextFileIn(parent, "bundle_de.properties", "key5 = Wert 5\nkey6 = Wert 6");
+        newTextFileIn(parent, "bundle_es.properties", "key7 = valor 7\nkey8 = valor 8");
+        final List<Locale> locales = Arrays.asList(Locale.ITALIAN, Locale.FRENCH, Locale.GERMAN, new Locale("es"));
+        final ConfigBuilder builder = ConfigBuilder.create().withRootDir(parent).withProfileDir(parent);
+        final Map<Locale, ConfigView> configs = builder.buildLayered(locales);
+        for(Locale locale : locales) {
+            final LayeredConfig layered = (LayeredConfig) configs.get(locale);
+            Assert.assertEquals(2, layered.overlay().getObject("bundle").size());
+            Assert.assertEquals(builder.withLocale(locale).build(), layered.toConfig());
+            Assert.assertEquals("value 0", layered.getString("bundle.key0"));
+        }
+        Assert.assertEquals("valore 1", configs.get(Locale.ITALIAN).getString("bundle.key1"));
+        Assert.assertEquals("value 3", configs.get(Locale.ITALIAN).getString("bundle.key3"));
+        Assert.assertEquals(5000, configs.get(Locale.FRENCH).getConfig("bundle").root().size());
+        Assert.assertEquals("valeur 4", configs.get(Locale.FRENCH).getConfig("bundle").getString("key4"));
+    }
+
+    @Test
+    public void testOnlyKeysHidingDefaultObjectsAreMergedInFull() throws IOException {
+        newTextFileIn(parent, "labels.conf", "ok: OK\ncancel: Cancel");
+        newTextFileIn(parent, "labels_it.conf", "cancel: Annulla");
+        final ConfigBuilder builder = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1);
+        final LayeredConfig it = (LayeredConfig) builder.buildLayered(Arrays.asList(Locale.ITALIAN)).get(Locale.ITALIAN);
+        Assert.assertEquals(builder.withLocale(Locale.ITALIAN).build(), it.toConfig());
+        Assert.assertEquals(1, it.overlay().getObject("labels").size());
+        Assert.assertEquals("OK", it.getString("labels.ok"));
+        // messages_it.conf replaces the plural object with a value, so messages is merged in full
+        Assert.assertTrue(it.overlay().hasPath("messages.units"));
+        Assert.assertFalse(it.hasPath("messages.plural.one"));
+    }
+
+    @Test
+    public void testLocaleValuesHideDefaultObjects() throws IOException {
+        newTextFileIn(child_1, "b_it_IT.conf", "k { n = 2 }");
+        newTextFileIn(parent, "b_it.conf", "k = x");
+        newTextFileIn(parent, "b.conf", "k { m = 1 }");
+        newTextFileIn(parent, "c_it.conf", "k = null\nk { n = 2 }");
+        newTextFileIn(parent, "c.conf", "k { m = 1 }");
+        final ConfigBuilder builder = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1);
+        final Map<Locale, ConfigView> configs = builder.buildLayered(Arrays.asList(Locale.ITALY, Locale.ITALIAN));
+        for(Locale locale : configs.keySet()) {
+            final Config expected = builder.withLocale(locale).build();
+            Assert.assertEquals(expected, configs.get(locale).toConfig());
+            for(String path : Arrays.asList("b", "b.k", "b.k.m", "b.k.n", "c.k", "c.k.m", "c.k.n")) {
+                Assert.assertEquals(path, expected.hasPath(path), configs.get(locale).hasPath(path));
+            }
+        }
+        Assert.assertFalse(configs.get(Locale.ITALY).hasPath("b.k.m"));
+        Assert.assertEquals(2, configs.get(Locale.ITALY).getInt("c.k.n"));
+    }
+
+    @Test
+    public void testDefaultConfigIsResolvedOnlyWhenRead() throws IOException {
+        newTextFileIn(parent, "broken.conf", "x: ${missing}");
+        newTextFileIn(parent, "broken_it.conf", "x: ciao");
+        final ConfigBuilder builder = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1);
+        final Map<Locale, ConfigView> configs = builder.buildLayered(Arrays.asList(Locale.ITALIAN, Locale.GERMANY));
+        Assert.assertEquals("ciao", configs.get(Locale.ITALIAN).getString("broken.x"));
+        Assert.assertEquals(builder.withLocale(Locale.ITALIAN).build(), configs.get(Locale.ITALIAN).toConfig());
+        try {
+            configs.get(Locale.GERMANY).getString("messages.greeting");
+            Assert.fail("the default config cannot be resolved");
+        } catch (ConfigException.UnresolvedSubstitution expected) {
+        }
+    }
+
+    @Test
+    public void testWrongTypesFailLikeFullBuilds() {
+        final ConfigView it = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1)
+                .buildLayered(Arrays.asList(Locale.ITALIAN)).get(Locale.ITALIAN);
+        try {
+            it.getString("messages.plural.one");
+            Assert.fail("messages.plural is a string");
+        } catch (ConfigException.WrongType expected) {
+        }
+        try {
+            it.getString("messages.farewell");
+            Assert.fail("messages.farewell is null");
+        } catch (ConfigException.Null expected) {
+        }
+    }
+
+    @Test
+    public void testSubstitutionsAreBuiltInFull() throws IOException {
+        newTextFileIn(child_1, "other.conf", "property: value\nref: ${messages.greeting}");
+        final ConfigBuilder builder = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1);
+        final ConfigView it = builder.buildLayered(Arrays.asList(Locale.ITALIAN)).get(Locale.ITALIAN);
+        Assert.assertFalse(it instanceof LayeredConfig);
+        Assert.assertEquals("ciao", it.getString("other.ref"));
+        Assert.assertEquals(builder.withLocale(Locale.ITALIAN).build(), it.toConfig());
+    }
+
+    private Locale defaultLocale;
+
+    private File parent;
+
+    private File child_1;
+
+}
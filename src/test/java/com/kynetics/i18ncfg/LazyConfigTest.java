@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigFactory;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.kynetics.i18ncfg.TestFiles.newTextFileIn;
+
+public class LazyConfigTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testOnlyAccessedKeysAreParsed() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File child_1 = tmp.newFolder("parent", "child_1");
+        newTextFileIn(parent, "root.conf",
+                "property1: property1 in root.conf file\n"+
+                "property2: property2 in root.conf file");
+        newTextFileIn(parent, "root_it.conf",
+                "property2: property2 in root_it.conf file");
+        newTextFileIn(child_1, "root.conf",
+                "property1: property1 in root.conf file in child_1 dir");
+        newTextFileIn(parent, "other.properties", "property = other");
+        newTextFileIn(parent, "unused.json", "{ \"property\": \"unused\" }");
+        final ParseCache cache = new ParseCache(10);
+        final ConfigView cfg = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1)
+                .withLocale(getLocale_it_IT()).withParseCache(cache).buildLazy();
+        Assert.assertEquals(0, cache.missCount());
+        Assert.assertEquals("property1 in root.conf file in child_1 dir", cfg.getString("root.property1"));
+        Assert.assertEquals("property2 in root_it.conf file", cfg.getString("root.property2"));
+        Assert.assertEquals(3, cache.missCount());
+        Assert.assertTrue(cfg.hasPath("other.property"));
+        Assert.assertFalse(cfg.hasPath("missing"));
+        Assert.assertEquals(4, cache.missCount());
+        Assert.assertEquals(ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1)
+                .withLocale(getLocale_it_IT()).build(), cfg.toConfig());
+        Assert.assertEquals(3, cfg.toConfig().root().size());
+    }
+
+    @Test
+    public void testSubstitutionsAcrossKeys() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        newTextFileIn(parent, "root.conf", "property1: ${other.property}");
+        newTextFileIn(parent, "other.conf", "property: other");
+        newTextFileIn(parent, "broken.conf", "property: ${missing}");
+        final ConfigView cfg = ConfigBuilder.create().withRootDir(parent).withProfileDir(parent).buildLazy();
+        Assert.assertEquals("other", cfg.getString("root.property1"));
+        Assert.assertEquals("other", cfg.getString("other.property"));
+        try {
+            cfg.getString("broken.property");
+            Assert.fail("unresolved substitution expected");
+        } catch (ConfigException.UnresolvedSubstitution expected) {
+            // only the keys reachable from broken are resolved
+        }
+    }
+
+    @Test
+    public void testBuiltConfigWorksWithTheLibrary() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        newTextFileIn(parent, "root.conf", "property1: lazy");
+        final ConfigView lazy = ConfigBuilder.create().withRootDir(parent).withProfileDir(parent).buildLazy();
+        final ConfigView other = ConfigBuilder.create().withRootDir(parent).withProfileDir(parent).buildLazy();
+        final Config merged = ConfigFactory.parseString("a: 1").withFallback(lazy.toConfig());
+        Assert.assertEquals("lazy", merged.getString("root.property1"));
+        Assert.assertEquals("lazy", ConfigFactory.parseString("b: ${root.property1}").resolveWith(lazy.toConfig()).getString("b"));
+        Assert.assertEquals(lazy, other);
+        Assert.assertEquals(other, lazy);
+        Assert.assertEquals(lazy.hashCode(), other.hashCode());
+    }
+
+    @Test
+    public void testConcurrentFirstAccessParsesOnce() throws Exception {
+        final File parent = tmp.newFolder("parent");
+        newTextFileIn(parent, "root.conf", "property1: property1 in root.conf file");
+        final ParseCache cache = new ParseCache(10);
+        final ConfigView cfg = ConfigBuilder.create().withRootDir(parent).withProfileDir(parent)
+                .withParseCache(cache).buildLazy();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<String>> results = new ArrayList<>();
+            for(int i = 0; i < 32; i++) {
+                results.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() {
+                        return cfg.getString("root.property1");
+                    }
+                }));
+            }
+            for(Future<String> result : results) {
+                Assert.assertEquals("property1 in root.conf file", result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(1, cache.missCount());
+        Assert.assertEquals(0, cache.hitCount());
+    }
+
+    private Locale getLocale_it_IT(){
+        return new Locale.Builder().setLanguage("it").setRegion("IT").build();
+    }
+
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class LocaleConfigStoreTest {
+
+    @Test
+    public void testColdLocalesAreInflatedOnAccess() {
+        final LocaleConfigStore store = new LocaleConfigStore(1, TimeUnit.MINUTES);
+        final Config it = ConfigFactory.parseString("messages { greeting: ciao, count: 3, ratio: 2.5, price: 2.50, list: [a, 1], none: null }");
+        final Config fr = ConfigFactory.parseString("messages { greeting: bonjour }");
+        store.put(Locale.ITALIAN, it);
+        store.put(Locale.FRENCH, fr);
+        store.put(null, ConfigFactory.parseString("messages { greeting: hello }"));
+        Assert.assertSame(it, store.get(Locale.ITALIAN));
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList(Locale.ITALIAN, Locale.FRENCH, null)), store.hotLocales());
+
+        store.demoteIdle(System.nanoTime() + TimeUnit.MINUTES.toNanos(2));
+        Assert.assertEquals(Collections.<Locale>emptySet(), store.hotLocales());
+        Assert.assertEquals(3, store.demotionCount());
+        Assert.assertTrue(store.compressedBytes() > 0);
+
+        final Config inflated = store.get(Locale.ITALIAN);
+        Assert.assertNotSame(it, inflated);
+        Assert.assertEquals(it, inflated);
+        Assert.assertEquals("2.50", inflated.getString("messages.price"));
+        Assert.assertSame(inflated, store.get(Locale.ITALIAN));
+        Assert.assertEquals("hello", store.get(null).getString("messages.greeting"));
+        Assert.assertEquals(2, store.decompressionCount());
+        Assert.assertEquals(3, store.size());
+
+        final long compressedBytes = store.compressedBytes();
+        store.demoteIdle(System.nanoTime() + TimeUnit.MINUTES.toNanos(2));
+        Assert.assertEquals(compressedBytes, store.compressedBytes());
+        Assert.assertEquals(5, store.demotionCount());
+        Assert.assertEquals(fr, store.get(Locale.FRENCH));
+        Assert.assertNull(store.get(Locale.GERMAN));
+    }
+
+    @Test
+    public void testAccessCounts() {
+        final LocaleConfigStore store = new LocaleConfigStore(1, TimeUnit.MINUTES);
+        store.put(Locale.ITALIAN, ConfigFactory.parseString("greeting: ciao"));
+        store.put(Locale.FRENCH, ConfigFactory.parseString("greeting: bonjour"));
+        store.get(Locale.FRENCH);
+        store.get(Locale.FRENCH);
+        store.get(Locale.ITALIAN);
+        Assert.assertEquals(2, store.accessCount(Locale.FRENCH));
+        Assert.assertEquals(0, store.accessCount(Locale.GERMAN));
+        Assert.assertEquals(Arrays.asList(Locale.FRENCH, Locale.ITALIAN), Arrays.asList(store.accessCounts().keySet().toArray()));
+        Assert.assertEquals(Long.valueOf(1), store.accessCounts().get(Locale.ITALIAN));
+        Assert.assertTrue(store.remove(Locale.FRENCH));
+        Assert.assertEquals(0, store.accessCount(Locale.FRENCH));
+    }
+
+    @Test
+    public void testReadsDoNotCompressOtherLocales() throws InterruptedException {
+        final LocaleConfigStore store = new LocaleConfigStore(1, TimeUnit.MILLISECONDS);
+        store.put(Locale.ITALIAN, ConfigFactory.parseString("greeting: ciao"));
+        store.put(Locale.FRENCH, ConfigFactory.parseString("greeting: bonjour"));
+        Thread.sleep(10);
+        Assert.assertEquals("ciao", store.get(Locale.ITALIAN).getString("greeting"));
+        Assert.assertEquals(0, store.compressedBytes());
+        Assert.assertTrue(store.hotLocales().contains(Locale.FRENCH));
+
+        Thread.sleep(10);
+        store.demoteIdle();
+        Assert.assertEquals(Collections.<Locale>emptySet(), store.hotLocales());
+        Assert.assertEquals("bonjour", store.get(Locale.FRENCH).getString("greeting"));
+        Thread.sleep(10);
+        // the snapshot is kept, so a read drops the idle live config without compressing
+        final long compressedBytes = store.compressedBytes();
+        store.get(Locale.ITALIAN);
+        Assert.assertFalse(store.hotLocales().contains(Locale.FRENCH));
+        Assert.assertEquals(compressedBytes, store.compressedBytes());
+    }
+
+    @Test
+    public void testScheduledDemotion() throws InterruptedException {
+        final LocaleConfigStore store = new LocaleConfigStore(10, TimeUnit.MILLISECONDS);
+        store.put(Locale.ITALIAN, ConfigFactory.parseString("greeting: ciao"));
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final ScheduledFuture<?> demotion = store.scheduleDemotion(executor);
+            final long deadline = System.currentTimeMillis() + 10000;
+            while(!store.hotLocales().isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            demotion.cancel(false);
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(Collections.<Locale>emptySet(), store.hotLocales());
+        Assert.assertEquals("ciao", store.get(Locale.ITALIAN).getString("greeting"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnresolvedConfigsAreRejected() {
+        new LocaleConfigStore(1, TimeUnit.MINUTES).put(Locale.ITALIAN, ConfigFactory.parseString("a: ${b}, b: 1"));
+    }
+
+}
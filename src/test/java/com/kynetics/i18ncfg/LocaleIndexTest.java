@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.kynetics.i18ncfg.TestFiles.newTextFileIn;
+
+public class LocaleIndexTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Before
+    public void setUp() throws IOException {
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+        parent = tmp.newFolder("parent");
+        child_1 = tmp.newFolder("parent", "child_1");
+        newTextFileIn(parent, "root.conf", "property1: property1 in root.conf file");
+        newTextFileIn(parent, "root_it.conf", "property1: property1 in root_it.conf file");
+        newTextFileIn(child_1, "root_en.conf", "property1: property1 in root_en.conf file in child_1 dir");
+        newTextFileIn(child_1, "messages_fr_CA.conf", "greeting: bonjour");
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    public void testAvailableLocales() {
+        final LocaleIndex index = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1).buildLocaleIndex();
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList(Locale.ENGLISH, Locale.CANADA_FRENCH, Locale.ITALIAN)),
+                index.availableLocales());
+        Assert.assertEquals(Collections.singleton(Locale.CANADA_FRENCH), index.availableLocales("messages"));
+        Assert.assertEquals(Collections.<Locale>emptySet(), index.availableLocales("missing"));
+    }
+
+    @Test
+    public void testEffectiveLocale() {
+        final LocaleIndex index = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1).buildLocaleIndex();
+        Assert.assertNull(index.effectiveLocale(null));
+        Assert.assertNull(index.effectiveLocale(Locale.US));
+        Assert.assertNull(index.effectiveLocale(Locale.GERMANY));
+        Assert.assertNull(index.effectiveLocale(Locale.FRENCH));
+        Assert.assertEquals(Locale.ITALIAN, index.effectiveLocale(Locale.ITALY));
+        Assert.assertEquals(Locale.ENGLISH, index.effectiveLocale(Locale.UK));
+        Assert.assertEquals(Locale.CANADA_FRENCH, index.effectiveLocale(Locale.CANADA_FRENCH));
+        Assert.assertEquals(Locale.CANADA_FRENCH, index.effectiveLocale(Locale.forLanguageTag("fr-CA-x-test")));
+    }
+
+    @Test
+    public void testEffectiveLocalesBuildTheSameConfig() {
+        final ConfigBuilder builder = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1);
+        final LocaleIndex index = builder.buildLocaleIndex();
+        for(Locale locale : Arrays.asList(Locale.US, Locale.UK, Locale.GERMANY, Locale.ITALY, Locale.FRANCE, Locale.CANADA_FRENCH)) {
+            Assert.assertEquals(builder.withLocale(locale).build(), builder.withLocale(index.effectiveLocale(locale)).build());
+        }
+    }
+
+    @Test
+    public void testNegotiate() {
+        final LocaleIndex index = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1).buildLocaleIndex();
+        Assert.assertEquals(Locale.ITALIAN, index.negotiate("de-DE,de;q=0.9,it-IT;q=0.8,fr;q=0.7"));
+        Assert.assertEquals(Locale.CANADA_FRENCH, index.negotiate("it;q=0.5, fr-CA"));
+        Assert.assertEquals(Locale.ENGLISH, index.negotiate("en-GB,it;q=0.9"));
+        Assert.assertNull(index.negotiate("de,en-US;q=0.9,it;q=0.8"));
+        Assert.assertNull(index.negotiate("de,*;q=0.5,it;q=0.1"));
+        Assert.assertNull(index.negotiate("it;q=0,de"));
+        Assert.assertNull(index.negotiate(""));
+        Assert.assertNull(index.negotiate(null));
+    }
+
+    @Test
+    public void testBuildAllSharesEffectiveLocales() {
+        final List<Locale> locales = Arrays.asList(Locale.ITALY, Locale.ITALIAN, Locale.GERMANY, Locale.FRENCH, null);
+        final BuildStatistics statistics = new BuildStatistics();
+        final Map<Locale, Config> configs = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1)
+                .withBuildListener(statistics).buildAll(locales);
+        Assert.assertEquals(locales, new ArrayList<>(configs.keySet()));
+        Assert.assertEquals(2, statistics.resolves());
+        Assert.assertSame(configs.get(Locale.ITALY), configs.get(Locale.ITALIAN));
+        Assert.assertSame(configs.get(Locale.GERMANY), configs.get(null));
+        Assert.assertEquals("property1 in root_en.conf file in child_1 dir", configs.get(Locale.FRENCH).getString("root.property1"));
+    }
+
+    private Locale defaultLocale;
+
+    private File parent;
+
+    private File child_1;
+
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValue;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+public class MappedMessageStoreTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testLookupsMatchMessageTable() throws IOException {
+        final Config config = ConfigFactory.parseString(
+                "messages { greeting: \"caff\u00e8 \u2615\", farewell: arrivederci, count: 3, ratio: 2.5, enabled: true }\n"+
+                "other { greeting: \"caff\u00e8 \u2615\", list: [a, b], empty: null }");
+        final File file = new File(tmp.getRoot(), "messages.i18nstore");
+        MappedMessageStore.write(config, file);
+        final MappedMessageStore store = MappedMessageStore.open(file);
+        final MessageTable table = MessageTable.compile(config);
+        Assert.assertEquals(table.size(), store.size());
+        for(Map.Entry<String, ConfigValue> entry : config.entrySet()) {
+            Assert.assertEquals(entry.getKey(), table.get(entry.getKey()), store.get(entry.getKey()));
+        }
+        Assert.assertEquals("caff\u00e8 \u2615", store.get("other.greeting"));
+        Assert.assertEquals("2.5", store.get("messages.ratio"));
+        Assert.assertTrue(store.hasPath("messages.enabled"));
+        Assert.assertFalse(store.hasPath("messages"));
+        Assert.assertFalse(store.hasPath("other.list"));
+        Assert.assertNull(store.get("missing.path"));
+    }
+
+    @Test
+    public void testEmptyConfig() throws IOException {
+        final File file = new File(tmp.getRoot(), "empty.i18nstore");
+        MappedMessageStore.write(ConfigFactory.empty(), file);
+        final MappedMessageStore store = MappedMessageStore.open(file);
+        Assert.assertEquals(0, store.size());
+        Assert.assertNull(store.get("any"));
+    }
+
+    @Test
+    public void testRewritingKeepsOpenStores() throws IOException {
+        final File file = new File(tmp.getRoot(), "messages.i18nstore");
+        MappedMessageStore.write(ConfigFactory.parseString("greeting: hello"), file);
+        final MappedMessageStore old = MappedMessageStore.open(file);
+        MappedMessageStore.write(ConfigFactory.parseString("greeting: ciao"), file);
+        Assert.assertEquals("hello", old.get("greeting"));
+        Assert.assertEquals("ciao", MappedMessageStore.open(file).get("greeting"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpeningOtherFilesFails() throws IOException {
+        final File file = new File(tmp.getRoot(), "other.bin");
+        try(FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[64]);
+        }
+        MappedMessageStore.open(file);
+    }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class MessageTableTest {
+
+    @Test
+    public void testLookup() {
+        final Config config = ConfigFactory.parseString(
+                "bundle { greeting: hello, nested { count: 1e3, enabled: true }, list: [a, b], nothing: null }\n"+
+                "\"dotted.key\" { message: dotted }").resolve();
+        final MessageTable table = MessageTable.compile(config);
+        Assert.assertEquals(4, table.size());
+        Assert.assertEquals("hello", table.get("bundle.greeting"));
+        Assert.assertEquals(config.getString("bundle.nested.count"), table.get("bundle.nested.count"));
+        Assert.assertEquals("true", table.get("bundle.nested.enabled"));
+        Assert.assertEquals("dotted", table.get("\"dotted.key\".message"));
+        Assert.assertNull(table.get("bundle.list"));
+        Assert.assertNull(table.get("bundle.nothing"));
+        Assert.assertNull(table.get("bundle"));
+        Assert.assertNull(table.get("missing"));
+        Assert.assertFalse(table.hasPath("missing"));
+        Assert.assertEquals(MessageTable.NO_HANDLE, table.handle("missing"));
+        Assert.assertNull(table.get(MessageTable.NO_HANDLE));
+        Assert.assertEquals("hello", table.get(table.handle("bundle.greeting")));
+    }
+
+    @Test
+    public void testHandlesAreSharedAcrossTables() {
+        final Map<String, Config> configs = new LinkedHashMap<>();
+        configs.put("en", ConfigFactory.parseString("bundle { greeting: hello, farewell: bye, brand: Kynetics }"));
+        configs.put("it", ConfigFactory.parseString("bundle { greeting: ciao, brand: Kynetics, extra: solo }"));
+        final Map<String, MessageTable> tables = MessageTable.compileAll(configs);
+        final MessageTable en = tables.get("en");
+        final MessageTable it = tables.get("it");
+        final int greeting = en.handle("bundle.greeting");
+        Assert.assertEquals(greeting, it.handle("bundle.greeting"));
+        Assert.assertEquals("hello", en.get(greeting));
+        Assert.assertEquals("ciao", it.get(greeting));
+        Assert.assertNull(it.get(en.handle("bundle.farewell")));
+        Assert.assertNull(en.get(it.handle("bundle.extra")));
+        Assert.assertSame(en.get("bundle.brand"), it.get("bundle.brand"));
+        Assert.assertEquals(3, en.size());
+        Assert.assertEquals(3, it.size());
+    }
+
+    @Test
+    public void testManyKeys() {
+        final StringBuilder source = new StringBuilder();
+        for(int i = 0; i < 1000; i++) {
+            source.append("bundle").append(i % 7).append(".key").append(i).append(": value").append(i).append('\n');
+        }
+        final Config config = ConfigFactory.parseString(source.toString());
+        final MessageTable table = MessageTable.compile(config);
+        Assert.assertEquals(1000, table.size());
+        for(int i = 0; i < 1000; i++) {
+            Assert.assertEquals(config.getString("bundle" + (i % 7) + ".key" + i), table.get("bundle" + (i % 7) + ".key" + i));
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static com.kynetics.i18ncfg.TestFiles.newTextFileIn;
+
+public class ParseCacheTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testUnchangedFileIsParsedOnce() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File rootConf = newTextFileIn(parent, "root.conf", "property1: value1");
+        final ParseCache cache = new ParseCache(10);
+        final Config first = cache.parse(rootConf);
+        final Config second = cache.parse(new File(parent, "./root.conf"));
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, cache.missCount());
+        Assert.assertEquals(1, cache.hitCount());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testChangedFileIsParsedAgain() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File rootConf = newTextFileIn(parent, "root.conf", "property1: value1");
+        final ParseCache cache = new ParseCache(10);
+        Assert.assertEquals("value1", cache.parse(rootConf).getString("property1"));
+        newTextFileIn(parent, "root.conf", "property1: value2");
+        rootConf.setLastModified(rootConf.lastModified() + 2000);
+        Assert.assertEquals("value2", cache.parse(rootConf).getString("property1"));
+        Assert.assertEquals(2, cache.missCount());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        final File a = newTextFileIn(parent, "a.conf", "p: a");
+        final File b = newTextFileIn(parent, "b.conf", "p: b");
+        final File c = newTextFileIn(parent, "c.conf", "p: c");
+        final ParseCache cache = new ParseCache(2);
+        cache.parse(a);
+        cache.parse(b);
+        cache.parse(a);
+        cache.parse(c);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.evictionCount());
+        cache.parse(a);
+        Assert.assertEquals(2, cache.hitCount());
+        cache.parse(b);
+        Assert.assertEquals(4, cache.missCount());
+    }
+
+    @Test
+    public void testBuilderUsesCache() throws IOException {
+        final File parent = tmp.newFolder("parent");
+        newTextFileIn(parent, "root.conf", "property1: value1");
+        newTextFileIn(parent, "other.conf", "property2: value2");
+        final ParseCache cache = new ParseCache(10);
+        ConfigBuilder.create().withRootDir(parent).withProfileDir(parent).withParseCache(cache).build();
+        final Config cfg = ConfigBuilder.create().withRootDir(parent).withProfileDir(parent).withParseCache(cache).build();
+        Assert.assertEquals("value1", cfg.getString("root.property1"));
+        Assert.assertEquals(2, cache.missCount());
+        Assert.assertEquals(2, cache.hitCount());
+    }
+
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static com.kynetics.i18ncfg.TestFiles.newTextFileIn;
+
+public class PropertiesParserTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testParsingLikeConfigFactory() throws IOException {
+        final File file = newTextFileIn(tmp.getRoot(), "root.properties",
+                "# comment\n"+
+                "a.b.c = 1\n"+
+                "a.b = object wins\n"+
+                "a.d : value with \\\n    continuation\n"+
+                "e = first\n"+
+                "e = last wins\n"+
+                "f = value\n"+
+                "f.g = object wins again\n"+
+                "unicode = caf\\u00e9\n"+
+                "escaped\\ key = value\n"+
+                "empty =\n");
+        final Config expected = ConfigFactory.parseFile(file);
+        final Config parsed = new ConfigBuilder.ScannedFile(file, file.length(), file.lastModified()).parse();
+        Assert.assertEquals(expected, parsed);
+        Assert.assertEquals("last wins", parsed.getString("e"));
+        Assert.assertEquals("object wins again", parsed.getString("f.g"));
+        Assert.assertEquals(file.getPath(), parsed.origin().description());
+    }
+
+    @Test
+    public void testParsingEmptyReader() {
+        Assert.assertTrue(PropertiesParser.parse(new StringReader(""), "empty", null).isEmpty());
+    }
+
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.kynetics.i18ncfg.TestFiles.newTextFileIn;
+
+public class ReloadingConfigTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testReloading_on_modified_file() throws Exception {
+        final File parent = tmp.newFolder("parent");
+        final File child_1 = tmp.newFolder("parent", "child_1");
+        final File rootConf = newTextFileIn(parent, "root.conf",
+                "property1: property1 in root.conf file\n"+
+                "property2: property2 in root.conf file");
+        newTextFileIn(child_1, "other.conf", "property1: ${root.property1}");
+        try(ReloadingConfig reloading = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1).buildReloading()) {
+            final BlockingQueue<Config> updates = listen(reloading);
+            Assert.assertEquals("property1 in root.conf file", reloading.get().getString("other.property1"));
+            newTextFileIn(parent, "root.conf",
+                    "property1: property1 in modified root.conf file\n"+
+                    "property2: property2 in root.conf file");
+            rootConf.setLastModified(rootConf.lastModified() + 2000);
+            final Config cfg = awaitUpdate(updates, "root.property1", "property1 in modified root.conf file");
+            Assert.assertEquals("property1 in modified root.conf file", cfg.getString("other.property1"));
+            Assert.assertSame(cfg, reloading.get());
+        }
+    }
+
+    @Test
+    public void testReloading_on_created_and_deleted_files() throws Exception {
+        final File parent = tmp.newFolder("parent");
+        final File child_1 = tmp.newFolder("parent", "child_1");
+        newTextFileIn(parent, "root.conf",
+                "property1: property1 in root.conf file");
+        try(ReloadingConfig reloading = ConfigBuilder.create().withRootDir(parent)
+                .withProfileDir(child_1).withLocale(getLocale_it_IT()).buildReloading()) {
+            final BlockingQueue<Config> updates = listen(reloading);
+            final File rootConf_it = newTextFileIn(child_1, "root_it.conf",
+                    "property1: property1 in root_it.conf file");
+            awaitUpdate(updates, "root.property1", "property1 in root_it.conf file");
+            final File bundle = newTextFileIn(child_1, "bundle.properties", "property = value");
+            awaitUpdate(updates, "bundle.property", "value");
+            Assert.assertTrue(rootConf_it.delete());
+            final Config cfg = awaitUpdate(updates, "root.property1", "property1 in root.conf file");
+            Assert.assertEquals("value", cfg.getString("bundle.property"));
+            Assert.assertTrue(bundle.delete());
+            while(reloading.get().hasPath("bundle")) {
+                Assert.assertNotNull("timed out waiting for reload", updates.poll(10, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals(1, reloading.get().entrySet().size());
+        }
+    }
+
+    @Test
+    public void testReloading_keeps_last_config_on_failure() throws Exception {
+        final File parent = tmp.newFolder("parent");
+        newTextFileIn(parent, "root.conf", "property1: property1 in root.conf file");
+        try(ReloadingConfig reloading = ConfigBuilder.create().withRootDir(parent).withProfileDir(parent).buildReloading()) {
+            final Config initial = reloading.get();
+            newTextFileIn(parent, "broken.conf", "property1: ${missing}");
+            final long deadline = System.currentTimeMillis() + 10000;
+            while(reloading.lastFailure() == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            Assert.assertNotNull(reloading.lastFailure());
+            Assert.assertSame(initial, reloading.get());
+        }
+    }
+
+    @Test
+    public void testReloading_fails_on_deleted_directory_and_watches_it_again_when_recreated() throws Exception {
+        final File parent = tmp.newFolder("parent");
+        final File child_1 = tmp.newFolder("parent", "child_1");
+        newTextFileIn(parent, "root.conf", "property1: property1 in root.conf file");
+        final File childConf = newTextFileIn(child_1, "root.conf", "property1: property1 in child_1 dir");
+        try(ReloadingConfig reloading = ConfigBuilder.create().withRootDir(parent).withProfileDir(child_1).buildReloading()) {
+            final BlockingQueue<Config> updates = listen(reloading);
+            final Config initial = reloading.get();
+            Assert.assertEquals("property1 in child_1 dir", initial.getString("root.property1"));
+            Assert.assertTrue(childConf.delete());
+            Assert.assertTrue(child_1.delete());
+            final long deadline = System.currentTimeMillis() + 10000;
+            while(reloading.lastFailure() == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            Assert.assertTrue(reloading.lastFailure() instanceof IllegalStateException);
+            Assert.assertTrue(reloading.get().hasPath("root.property1"));
+
+            Assert.assertTrue(child_1.mkdir());
+            newTextFileIn(child_1, "root.conf", "property1: property1 in recreated child_1 dir");
+            awaitUpdate(updates, "root.property1", "property1 in recreated child_1 dir");
+            newTextFileIn(child_1, "other.conf", "property1: in recreated child_1 dir");
+            awaitUpdate(updates, "other.property1", "in recreated child_1 dir");
+            Assert.assertNull(reloading.lastFailure());
+        }
+    }
+
+    private BlockingQueue<Config> listen(ReloadingConfig reloading) {
+        final BlockingQueue<Config> updates = new LinkedBlockingQueue<>();
+        reloading.holder().addListener(new ConfigHolder.Listener() {
+            @Override
+            public void configChanged(Config config) {
+                updates.add(config);
+            }
+        });
+        return updates;
+    }
+
+    private Config awaitUpdate(BlockingQueue<Config> updates, String path, String expected) throws InterruptedException {
+        while(true) {
+            final Config cfg = updates.poll(10, TimeUnit.SECONDS);
+            Assert.assertNotNull("timed out waiting for "+path+" = "+expected, cfg);
+            if(cfg.hasPath(path) && expected.equals(cfg.getString(path))) return cfg;
+        }
+    }
+
+    private Locale getLocale_it_IT(){
+        return new Locale.Builder().setLanguage("it").setRegion("IT").build();
+    }
+
+}
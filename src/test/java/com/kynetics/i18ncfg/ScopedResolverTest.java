@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2016 Kynetics, LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.kynetics.i18ncfg;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ScopedResolverTest {
+
+    @Test
+    public void testReferencedGroups() {
+        final Config cfg = ConfigFactory.parseString(
+                "a: ${b.c}, d: \"${e}\", f: ${?\"g.h\".i} suffix, l: [${j}, \"k\"]");
+        Assert.assertEquals(new HashSet<>(Arrays.asList("b", "g.h", "j")), ScopedResolver.referencedGroups(cfg.root()));
+    }
+
+    @Test
+    public void testResolvesOnlyReachableGroups() {
+        final ScopedResolver resolver = new ScopedResolver(ConfigBuilder.create(), ConfigFactory.empty(), null);
+        resolver.put("root", object("property1: ${other.property}"));
+        resolver.put("other", object("property: other"));
+        resolver.put("broken", object("property: ${missing}"));
+        final Config root = resolver.resolve(Collections.singleton("root"));
+        Assert.assertEquals("other", root.getString("root.property1"));
+        Assert.assertFalse(root.hasPath("broken"));
+        try {
+            resolver.resolveAll();
+            Assert.fail("unresolved substitution expected");
+        } catch (ConfigException.UnresolvedSubstitution expected) {
+            // broken is reachable from the whole tree
+        }
+    }
+
+    @Test
+    public void testLoadsGroupsOnDemand() {
+        final Map<String, Config> sources = new LinkedHashMap<>();
+        sources.put("root", ConfigFactory.parseString("property1: ${other.property}"));
+        sources.put("other", ConfigFactory.parseString("property: other"));
+        final Map<String, Integer> loads = new LinkedHashMap<>();
+        final ScopedResolver resolver = new ScopedResolver(ConfigBuilder.create(), ConfigFactory.parseString("rootDir: dir"),
+                new ScopedResolver.GroupLoader() {
+                    @Override
+                    public Map<String, ConfigObject> load(String group) {
+                        loads.put(group, loads.containsKey(group) ? loads.get(group) + 1 : 1);
+                        final Config source = sources.get(group);
+                        return source == null ? null : Collections.singletonMap(group, source.root());
+                    }
+                });
+        final Config root = resolver.resolve(Collections.singleton("root"));
+        Assert.assertEquals("other", root.getString("root.property1"));
+        Assert.assertEquals("dir", root.getString("rootDir"));
+        Assert.assertEquals(Integer.valueOf(1), loads.get("other"));
+        Assert.assertEquals("other", resolver.resolve(Collections.singleton("other")).getString("other.property"));
+        Assert.assertEquals(Integer.valueOf(1), loads.get("other"));
+    }
+
+    @Test
+    public void testReResolvesOnlyDependentGroups() {
+        final BuildStatistics statistics = new BuildStatistics();
+        final ScopedResolver resolver = new ScopedResolver(ConfigBuilder.create().withBuildListener(statistics),
+                ConfigFactory.empty(), null);
+        resolver.put("root", object("property1: ${other.property}"));
+        resolver.put("other", object("property: other"));
+        resolver.put("plain", object("property: plain"));
+        resolver.put("self", object("property: ${self.base}, base: base"));
+        Config cfg = resolver.resolveAll();
+        Assert.assertEquals("other", cfg.getString("root.property1"));
+        Assert.assertEquals("base", cfg.getString("self.property"));
+        Assert.assertEquals(1, statistics.resolves());
+
+        resolver.put("plain", object("property: changed"));
+        cfg = resolver.resolveAll();
+        Assert.assertEquals("changed", cfg.getString("plain.property"));
+        Assert.assertEquals(1, statistics.resolves());
+
+        resolver.put("other", object("property: changed"));
+        cfg = resolver.resolveAll();
+        Assert.assertEquals("changed", cfg.getString("root.property1"));
+        Assert.assertEquals("base", cfg.getString("self.property"));
+        Assert.assertEquals(2, statistics.resolves());
+
+        resolver.remove("plain");
+        cfg = resolver.resolveAll();
+        Assert.assertFalse(cfg.hasPath("plain"));
+        Assert.assertEquals("changed", cfg.getString("root.property1"));
+        Assert.assertEquals(2, statistics.resolves());
+    }
+
+    private static ConfigObject object(String source) {
+        return ConfigFactory.parseString(source).root();
+    }
+
+}